@@ -0,0 +1,106 @@
+package com.checkersgame;
+
+import com.checkersgame.core.engine.MonteCarloSearch;
+import com.checkersgame.core.engine.OpeningBookBuilder;
+import com.checkersgame.ui.InputHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * command line tool that builds an opening book file.  Games are read from a text file with one game per line
+ * written the way moves are typed, e.g. "3C-4D 6F-5E 4D-6F", and/or played by the Monte Carlo engine against
+ * itself.  Point the computer player at the book with -Dcheckers.book=path.
+ *
+ * usage: CheckersBook output [--games file] [--selfplay games] [--plies plies] [--time ms]
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+public class CheckersBook {
+    /**
+     * Main method to run the program
+     * @param args
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            usage();
+            return;
+        }
+
+        Path output = Path.of(args[0]);
+        Path games = null;
+        int selfPlay = 0;
+        int plies = 12;
+        long time = 200;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("--games") && i + 1 < args.length)
+                    games = Path.of(args[++i]);
+                else if (args[i].equals("--selfplay") && i + 1 < args.length)
+                    selfPlay = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--plies") && i + 1 < args.length)
+                    plies = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--time") && i + 1 < args.length)
+                    time = Long.parseLong(args[++i]);
+                else {
+                    usage();
+                    return;
+                }
+            }
+        } catch (NumberFormatException e) {
+            usage();
+            return;
+        }
+
+        if (selfPlay < 0 || plies < 1 || time < 1) {
+            usage();
+            return;
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies);
+        if (games != null) {
+            List<String> lines = Files.readAllLines(games);
+            for (int line = 0; line < lines.size(); line++) {
+                String text = lines.get(line).trim();
+                if (text.isEmpty() || text.startsWith("#"))
+                    continue;
+                try {
+                    builder.addGame(parseGame(text));
+                } catch (Exception e) {
+                    System.out.println("Skipping line " + (line + 1) + ", it is not a game of legal moves");
+                }
+            }
+        }
+        if (selfPlay > 0) {
+            MonteCarloSearch engine = new MonteCarloSearch();
+            engine.setTimeLimit(time);
+            engine.setThreads(Runtime.getRuntime().availableProcessors());
+            builder.addSelfPlay(engine, selfPlay);
+            engine.close();
+        }
+
+        builder.write(output);
+        System.out.println("Wrote " + builder.size() + " records to " + output);
+    }
+
+    /**
+     * converts a line of moves to packed moves
+     * @param text
+     * @return int[]
+     * @throws Exception
+     */
+    private static int[] parseGame(String text) throws Exception {
+        String[] split = text.split("\\s+");
+        int[] moves = new int[split.length];
+        for (int i = 0; i < split.length; i++)
+            moves[i] = InputHelper.convertStringToMove(split[i]);
+        return moves;
+    }
+
+    private static void usage() {
+        System.out.println("usage: CheckersBook output [--games file] [--selfplay games] [--plies plies] [--time ms]");
+    }
+}
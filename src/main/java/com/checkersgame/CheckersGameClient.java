@@ -1,8 +1,6 @@
 package com.checkersgame;
 
-import com.checkersgame.core.Coordinate;
 import com.checkersgame.core.enums.Color;
-import com.checkersgame.core.enums.ColumnLabel;
 import com.checkersgame.core.enums.Player;
 import com.checkersgame.ui.CheckersGUI;
 import com.checkersgame.ui.InputHelper;
@@ -25,8 +23,6 @@ public class CheckersGameClient extends CheckersGUI{
     private DataInputStream fromServer;
     private DataOutputStream toServer;
     private boolean waiting = true;
-    private ObjectOutputStream toServerObject;
-    private ObjectInputStream fromServerObject;
     private boolean activeGame = true;
     private Socket socket;
 
@@ -55,8 +51,6 @@ public class CheckersGameClient extends CheckersGUI{
             fromServer = new DataInputStream(socket.getInputStream());
 
             toServer = new DataOutputStream(socket.getOutputStream());
-
-            toServerObject = new ObjectOutputStream(socket.getOutputStream());
         } catch (Exception ex) {
             ex.printStackTrace();
         }
@@ -119,12 +113,7 @@ public class CheckersGameClient extends CheckersGUI{
     private void receiveInfoFromServer() throws Exception {
         fromServer.readInt();
 
-        Coordinate[] opposingMove = receiveMove();
-
-        if (opposingMove[2] != null)
-            logic.handleTurn(opponent, opposingMove[0], opposingMove[1], opposingMove[2]);
-        else
-            logic.handleTurn(opponent, opposingMove[0], opposingMove[1]);
+        logic.handleTurn(opponent, receiveMove());
 
         Platform.runLater(this::updateBoard);
 
@@ -148,23 +137,12 @@ public class CheckersGameClient extends CheckersGUI{
     }
 
     /**
-     * gets the move from the server and turns it into a coordinate
-     * @return Coordinate[]
+     * gets the packed move from the server
+     * @return int packed move
+     * @throws IOException
      */
-    private Coordinate[] receiveMove() {
-        Coordinate[] c = new Coordinate[3];
-        try {
-            int oldRow = fromServer.readInt();
-            ColumnLabel oldCol = ColumnLabel.valueOf(fromServer.readInt());
-            int newRow = fromServer.readInt();
-            ColumnLabel newCol = ColumnLabel.valueOf(fromServer.readInt());
-
-            c[0] = InputHelper.convertStringToCoordinate(oldRow + "" + oldCol);
-            c[1] = InputHelper.convertStringToCoordinate(newRow + "" + newCol);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return c;
+    private int receiveMove() throws IOException {
+        return fromServer.readInt();
     }
 
     /**
@@ -225,27 +203,8 @@ public class CheckersGameClient extends CheckersGUI{
      */
     private void enterMove() {
         try {
-            Coordinate[] cordArray = new Coordinate[3];
-            String[] split = input.getCharacters().toString().split("-");
-            if (split.length < 2) {
-                throw new Exception();
-            }
-
-            Coordinate rowCord = InputHelper.convertStringToCoordinate(split[0]);
-            Coordinate colCord = InputHelper.convertStringToCoordinate(split[1]);
-
-            cordArray[0] = rowCord;
-            cordArray[1] = colCord;
-
-            if (split.length > 2) {
-                Coordinate lastCord = InputHelper.convertStringToCoordinate(split[2]);
-
-                cordArray[2] = lastCord;
-
-                logic.handleTurn(opponent, rowCord, colCord, lastCord);
-            } else {
-                logic.handleTurn(opponent, rowCord, colCord);
-            }
+            int move = InputHelper.convertStringToMove(input.getCharacters().toString());
+            logic.handleTurn(opponent, move);
 
             Platform.runLater(() -> {
                 updateBoard();
@@ -254,7 +213,7 @@ public class CheckersGameClient extends CheckersGUI{
                 inputTitle.setText("Waiting for " + ((opponent == Player.PlayerX) ? "Player X " : "PLayer O ") + "to make move.");
             });
 
-            toServerObject.writeObject(cordArray);
+            toServer.writeInt(move);
 
 
         } catch (Exception ex) {
@@ -1,7 +1,6 @@
 package com.checkersgame;
 
 import com.checkersgame.core.CheckersLogic;
-import com.checkersgame.core.Coordinate;
 import com.checkersgame.core.enums.Player;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -140,7 +139,7 @@ public class CheckersGameServer extends Application {
         }
 
         /**
-         * sends the coordinates of the move from the opponent.
+         * sends the packed move from the opponent.
          * @param playerTurn
          * @param oppPlayer
          * @throws Exception
@@ -151,33 +150,26 @@ public class CheckersGameServer extends Application {
             new DataOutputStream(
                     playerTurn.getOutputStream()).writeInt(1);
 
-            ObjectInputStream fromPlayerObject = new ObjectInputStream(
-                    playerTurn.getInputStream());
-            Coordinate[] cordArray = (Coordinate[]) fromPlayerObject.readObject();
+            int move = new DataInputStream(
+                    playerTurn.getInputStream()).readInt();
 
-            if (cordArray[2] != null)
-                logic.handleTurn(opponent, cordArray[0], cordArray[1], cordArray[2]);
-            else
-                logic.handleTurn(opponent, cordArray[0], cordArray[1]);
+            logic.handleTurn(opponent, move);
 
             new DataOutputStream(
                     oppPlayer.getOutputStream()).writeInt(1);
 
             sendMove(new DataOutputStream(
-                    oppPlayer.getOutputStream()), cordArray);
+                    oppPlayer.getOutputStream()), move);
         }
 
         /**
-         * writes the coordinates to the other client
+         * writes the packed move to the other client
          * @param out
-         * @param cordArray
+         * @param move
          * @throws IOException
          */
-        private void sendMove(DataOutputStream out, Coordinate[] cordArray) throws IOException {
-            out.writeInt(cordArray[0].getRow());
-            out.writeInt(cordArray[0].getCol().getValue());
-            out.writeInt(cordArray[1].getRow());
-            out.writeInt(cordArray[1].getCol().getValue());
+        private void sendMove(DataOutputStream out, int move) throws IOException {
+            out.writeInt(move);
         }
 
     }
@@ -0,0 +1,121 @@
+package com.checkersgame;
+
+import com.checkersgame.core.BitBoard;
+import com.checkersgame.core.Board;
+import com.checkersgame.core.Move;
+import com.checkersgame.core.Perft;
+import com.checkersgame.core.PerftCache;
+import com.checkersgame.core.enums.Color;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * command line perft.  Counts the positions up to a depth from the starting position, or from a position given
+ * as hex masks, and reports nodes per second.  With --threads the counts are split over a fork-join pool and
+ * --cache gives them a table of counts in MB.  --divide counts on the bitboard on one thread; of the other
+ * options only --cache applies to it.
+ *
+ * usage: CheckersPerft depth [--divide] [--board] [--threads n] [--cache mb]
+ *                            [--position dark light kings DARK|LIGHT]
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+public class CheckersPerft {
+    /**
+     * Main method to run the program
+     * @param args
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            usage();
+            return;
+        }
+
+        int depth;
+        boolean divide = false;
+        boolean onBoard = false;
+        int threads = 1;
+        int cacheSize = 0;
+        BitBoard position = BitBoard.startingPosition();
+        try {
+            depth = Integer.parseInt(args[0]);
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("--divide")) {
+                    divide = true;
+                } else if (args[i].equals("--board")) {
+                    onBoard = true;
+                } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--cache") && i + 1 < args.length) {
+                    cacheSize = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--position") && i + 4 < args.length) {
+                    position = new BitBoard(Integer.parseUnsignedInt(args[i + 1], 16),
+                            Integer.parseUnsignedInt(args[i + 2], 16), Integer.parseUnsignedInt(args[i + 3], 16),
+                            Color.valueOf(args[i + 4].toUpperCase()));
+                    i += 4;
+                } else {
+                    usage();
+                    return;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            usage();
+            return;
+        }
+
+        // divide counts on the bitboard of one thread, only the cache applies to it
+        if (threads < 1 || depth < (divide ? 1 : 0) || depth > Perft.MAX_DEPTH ||
+                (onBoard && (threads > 1 || cacheSize > 0)) || (divide && (onBoard || threads > 1))) {
+            usage();
+            return;
+        }
+
+        Perft perft;
+        try {
+            perft = new Perft(cacheSize > 0 ? new PerftCache(cacheSize) : null);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            usage();
+            return;
+        }
+        ForkJoinPool pool = (threads > 1) ? new ForkJoinPool(threads) : null;
+        System.out.println(position);
+        if (divide) {
+            long total = 0;
+            for (Map.Entry<Integer, Long> entry : perft.divide(position, depth).entrySet()) {
+                System.out.println(Move.toString(entry.getKey()) + ": " + entry.getValue());
+                total += entry.getValue();
+            }
+            System.out.println("total: " + total);
+            return;
+        }
+
+        Board board = onBoard ? new Board(position) : null;
+        for (int d = 1; d <= depth; d++) {
+            long start = System.nanoTime();
+            long nodes = onBoard ? perft.count(board, d) :
+                    (pool != null) ? perft.count(position, d, pool) : perft.count(position, d);
+            report(d, nodes, System.nanoTime() - start);
+        }
+        if (pool != null)
+            pool.shutdown();
+    }
+
+    /**
+     * prints the count and speed of one depth
+     * @param depth
+     * @param nodes
+     * @param nanos
+     */
+    static void report(int depth, long nodes, long nanos) {
+        double seconds = Math.max(nanos, 1) / 1e9;
+        System.out.printf("depth %2d: %,15d nodes %10.3f s %,15.0f nodes/sec%n", depth, nodes, seconds, nodes / seconds);
+    }
+
+    private static void usage() {
+        System.out.println("usage: CheckersPerft depth [--divide] [--board] [--threads n] [--cache mb] " +
+                "[--position dark light kings DARK|LIGHT]");
+    }
+}
@@ -0,0 +1,115 @@
+package com.checkersgame;
+
+import com.checkersgame.core.CheckersComputerPlayer;
+import com.checkersgame.core.SelfPlay;
+import com.checkersgame.core.engine.AlphaBetaSearch;
+import com.checkersgame.core.engine.MonteCarloSearch;
+import com.checkersgame.core.engine.SearchEngine;
+import com.checkersgame.core.enums.EngineType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * command line self-play.  Plays a batch of engine against engine games at once without a ui, writes their
+ * records to a file and reports the wins, draws and games per second.  The alpha-beta engine searches to a depth
+ * and the Monte Carlo engine plays out a number of games per move, both with an optional time limit per move.
+ *
+ * usage: CheckersSelfPlay output games [--engine ALPHA_BETA|MONTE_CARLO] [--depth d] [--playouts n] [--time ms]
+ *                                      [--threads n] [--random plies] [--maxplies plies] [--seed s]
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+public class CheckersSelfPlay {
+    /**
+     * Main method to run the program
+     * @param args
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            usage();
+            return;
+        }
+
+        Path output = Path.of(args[0]);
+        int games;
+        EngineType type = EngineType.ALPHA_BETA;
+        int depth = 6;
+        long playouts = 2000;
+        long time = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int randomPlies = 4;
+        int maxPlies = 200;
+        long seed = 0;
+        try {
+            games = Integer.parseInt(args[1]);
+            for (int i = 2; i < args.length; i++) {
+                if (args[i].equals("--engine") && i + 1 < args.length)
+                    type = EngineType.valueOf(args[++i].toUpperCase());
+                else if (args[i].equals("--depth") && i + 1 < args.length)
+                    depth = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--playouts") && i + 1 < args.length)
+                    playouts = Long.parseLong(args[++i]);
+                else if (args[i].equals("--time") && i + 1 < args.length)
+                    time = Long.parseLong(args[++i]);
+                else if (args[i].equals("--threads") && i + 1 < args.length)
+                    threads = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--random") && i + 1 < args.length)
+                    randomPlies = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--maxplies") && i + 1 < args.length)
+                    maxPlies = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--seed") && i + 1 < args.length)
+                    seed = Long.parseLong(args[++i]);
+                else {
+                    usage();
+                    return;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            usage();
+            return;
+        }
+
+        if (games < 1 || depth < 1 || depth > AlphaBetaSearch.MAX_DEPTH || playouts < 1 || time < 0) {
+            usage();
+            return;
+        }
+
+        EngineType engineType = type;
+        int engineDepth = depth;
+        long enginePlayouts = playouts;
+        long engineTime = time;
+        SelfPlay selfPlay = new SelfPlay(() -> {
+            SearchEngine engine = CheckersComputerPlayer.createEngine(engineType, SelfPlay.TABLE_MB);
+            engine.setThreads(1);
+            engine.setTimeLimit(engineTime);
+            if (engine instanceof AlphaBetaSearch)
+                ((AlphaBetaSearch) engine).setMaxDepth(engineDepth);
+            else if (engine instanceof MonteCarloSearch)
+                ((MonteCarloSearch) engine).setMaxPlayouts(enginePlayouts);
+            return engine;
+        });
+        try {
+            selfPlay.setThreads(threads);
+            selfPlay.setRandomPlies(randomPlies);
+            selfPlay.setMaxPlies(maxPlies);
+            selfPlay.setSeed(seed);
+        } catch (IllegalArgumentException e) {
+            usage();
+            return;
+        }
+
+        selfPlay.run(games, output);
+        int played = selfPlay.getGames();
+        System.out.printf("%d games: dark won %d, light won %d, %d draws%n", played, selfPlay.getDarkWins(),
+                selfPlay.getLightWins(), selfPlay.getDraws());
+        System.out.printf("%.2f games/sec on %d threads, records in %s%n", selfPlay.getGamesPerSecond(), threads,
+                output);
+    }
+
+    private static void usage() {
+        System.out.println("usage: CheckersSelfPlay output games [--engine ALPHA_BETA|MONTE_CARLO] [--depth d] " +
+                "[--playouts n] [--time ms] [--threads n] [--random plies] [--maxplies plies] [--seed s]");
+    }
+}
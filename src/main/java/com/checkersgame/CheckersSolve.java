@@ -0,0 +1,76 @@
+package com.checkersgame;
+
+import com.checkersgame.core.BitBoard;
+import com.checkersgame.core.CheckersLogic;
+import com.checkersgame.core.engine.ProofNumberSearch;
+import com.checkersgame.core.enums.Color;
+import com.checkersgame.ui.InputHelper;
+
+/**
+ * command line solver.  Plays the given moves from the start of a game, or sets up a position given as hex masks,
+ * and proves whether the side to move wins, loses or draws with a proof-number search.  A line longer than
+ * --plies counts as a draw.
+ *
+ * usage: CheckersSolve [--nodes n] [--time ms] [--plies p] [--position dark light kings DARK|LIGHT] [moves...]
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+public class CheckersSolve {
+    /**
+     * Main method to run the program
+     * @param args
+     */
+    public static void main(String[] args) {
+        int maxNodes = 1 << 24;
+        long time = 0;
+        int plies = 20;
+        BitBoard position = null;
+        CheckersLogic logic = new CheckersLogic();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--nodes") && i + 1 < args.length) {
+                    maxNodes = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--time") && i + 1 < args.length) {
+                    time = Long.parseLong(args[++i]);
+                } else if (args[i].equals("--plies") && i + 1 < args.length) {
+                    plies = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--position") && i + 4 < args.length) {
+                    position = new BitBoard(Integer.parseUnsignedInt(args[i + 1], 16),
+                            Integer.parseUnsignedInt(args[i + 2], 16), Integer.parseUnsignedInt(args[i + 3], 16),
+                            Color.valueOf(args[i + 4].toUpperCase()));
+                    i += 4;
+                } else {
+                    logic.makeMove(InputHelper.convertStringToMove(args[i]));
+                }
+            }
+        } catch (Exception e) {
+            usage();
+            return;
+        }
+        if (position == null)
+            position = logic.getSnapshot().toBitBoard();
+
+        ProofNumberSearch solver;
+        try {
+            solver = new ProofNumberSearch(maxNodes);
+            solver.setTimeLimit(time);
+            solver.setMaxPlies(plies);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            usage();
+            return;
+        }
+        System.out.println(position);
+        int result = solver.solve(position);
+        String[] names = {"unknown", "loss", "win", "draw"};
+        System.out.println("Result for " + position.getTurn() + " to move: " + names[result]);
+        System.out.printf("proof size %,d, %,d nodes, peak %,d nodes, %,.0f nodes/sec%n", solver.getProofSize(),
+                solver.getNodes(), solver.getPeakNodes(), solver.getNodesPerSecond());
+    }
+
+    private static void usage() {
+        System.out.println("usage: CheckersSolve [--nodes n] [--time ms] [--plies p] " +
+                "[--position dark light kings DARK|LIGHT] [moves...]");
+    }
+}
@@ -0,0 +1,52 @@
+package com.checkersgame;
+
+import com.checkersgame.core.engine.TablebaseGenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * command line tool that builds the endgame tables into a directory.  Slices already in the directory are kept,
+ * so a run that was stopped can be started again.  Point the computer player at the tables with
+ * -Dcheckers.tablebase=directory.  Tables can be built for up to TablebaseGenerator.MAX_PIECES pieces.
+ *
+ * usage: CheckersTablebase directory pieces [--threads n]
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+public class CheckersTablebase {
+    /**
+     * Main method to run the program
+     * @param args
+     */
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int pieces;
+        try {
+            if (args.length != 2 && !(args.length == 4 && args[2].equals("--threads"))) {
+                usage();
+                return;
+            }
+            pieces = Integer.parseInt(args[1]);
+            if (args.length == 4)
+                threads = Integer.parseInt(args[3]);
+        } catch (NumberFormatException e) {
+            usage();
+            return;
+        }
+
+        if (pieces < 1 || pieces > TablebaseGenerator.MAX_PIECES || threads < 1) {
+            usage();
+            return;
+        }
+
+        long start = System.nanoTime();
+        new TablebaseGenerator(Path.of(args[0]), threads).generate(pieces);
+        System.out.printf("Done in %.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    private static void usage() {
+        System.out.println("usage: CheckersTablebase directory pieces [--threads n]");
+    }
+}
@@ -0,0 +1,238 @@
+package com.checkersgame;
+
+import com.checkersgame.core.CheckersComputerPlayer;
+import com.checkersgame.core.CheckersLogic;
+import com.checkersgame.core.SelfPlay;
+import com.checkersgame.core.Tournament;
+import com.checkersgame.core.engine.AlphaBetaSearch;
+import com.checkersgame.core.engine.IncrementalEvaluator;
+import com.checkersgame.core.engine.MonteCarloSearch;
+import com.checkersgame.core.engine.SearchEngine;
+import com.checkersgame.core.engine.TranspositionTable;
+import com.checkersgame.core.enums.EngineType;
+import com.checkersgame.ui.InputHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * command line tournament.  Plays engine configurations against each other over openings with the colors
+ * swapped and reports each pairing and each player against the field with an Elo difference and its 95% error
+ * bar.  Openings are random moves from the start, or read from a file with one opening per line written the way
+ * moves are typed, e.g. "3C-4D 6F-5E".
+ *
+ * A player is name:setting=value,... with the settings engine (ALPHA_BETA, MONTE_CARLO or RANDOM), depth, time
+ * in ms per move, playouts and weights, a file of evaluation weights for the alpha-beta engine.  For example
+ * "base:depth=6 tuned:depth=6,weights=tuned.properties random:engine=random".
+ *
+ * usage: CheckersTournament [--openings n] [--plies p] [--file openings] [--threads n] [--maxplies plies]
+ *                           [--seed s] player player...
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+public class CheckersTournament {
+    /**
+     * Main method to run the program
+     * @param args
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int openingCount = 10;
+        int plies = 4;
+        Path file = null;
+        long seed = 0;
+        Tournament tournament = new Tournament();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--openings") && i + 1 < args.length)
+                    openingCount = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--plies") && i + 1 < args.length)
+                    plies = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--file") && i + 1 < args.length)
+                    file = Path.of(args[++i]);
+                else if (args[i].equals("--threads") && i + 1 < args.length)
+                    tournament.setThreads(Integer.parseInt(args[++i]));
+                else if (args[i].equals("--maxplies") && i + 1 < args.length)
+                    tournament.setMaxPlies(Integer.parseInt(args[++i]));
+                else if (args[i].equals("--seed") && i + 1 < args.length)
+                    seed = Long.parseLong(args[++i]);
+                else if (args[i].startsWith("--")) {
+                    usage();
+                    return;
+                } else
+                    addPlayer(tournament, args[i]);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            usage();
+            return;
+        }
+
+        if (tournament.getPlayers() < 2 || openingCount < 1 || plies < 0) {
+            usage();
+            return;
+        }
+
+        tournament.setSeed(seed);
+        List<int[]> openings = (file != null) ? readOpenings(file) :
+                Tournament.randomOpenings(openingCount, plies, seed);
+        int games = openings.size() * 2;
+        System.out.printf("%d players, %d openings, %d games per pairing on %d threads%n", tournament.getPlayers(),
+                openings.size(), games, tournament.getThreads());
+        tournament.run(openings);
+
+        int players = tournament.getPlayers();
+        for (int a = 0; a < players; a++)
+            for (int b = a + 1; b < players; b++)
+                report(tournament.getName(a) + " vs " + tournament.getName(b), tournament.getWins(a, b),
+                        tournament.getDraws(a, b), tournament.getLosses(a, b));
+        System.out.println();
+        for (int a = 0; a < players; a++) {
+            int wins = 0;
+            int draws = 0;
+            int losses = 0;
+            for (int b = 0; b < players; b++) {
+                if (b == a)
+                    continue;
+                wins += tournament.getWins(a, b);
+                draws += tournament.getDraws(a, b);
+                losses += tournament.getLosses(a, b);
+            }
+            report(tournament.getName(a) + " vs field", wins, draws, losses);
+        }
+        System.out.printf("%.2f games/sec%n", tournament.getGamesPerSecond());
+    }
+
+    /**
+     * reads a player's settings and adds it to the tournament
+     * @param tournament
+     * @param spec name:setting=value,...
+     * @throws IllegalArgumentException if a setting is not known or its value can not be used
+     */
+    private static void addPlayer(Tournament tournament, String spec) {
+        int colon = spec.indexOf(':');
+        String name = (colon < 0) ? spec : spec.substring(0, colon);
+        EngineType type = EngineType.ALPHA_BETA;
+        int depth = 6;
+        long time = 0;
+        long playouts = 2000;
+        IncrementalEvaluator evaluator = null;
+
+        if (colon >= 0 && colon + 1 < spec.length()) {
+            for (String setting : spec.substring(colon + 1).split(",")) {
+                String[] pair = setting.split("=", 2);
+                if (pair.length != 2)
+                    throw new IllegalArgumentException("setting " + setting + " of " + name + " has no value");
+                switch (pair[0]) {
+                    case "engine":
+                        type = EngineType.valueOf(pair[1].toUpperCase());
+                        break;
+                    case "depth":
+                        depth = Integer.parseInt(pair[1]);
+                        break;
+                    case "time":
+                        time = Long.parseLong(pair[1]);
+                        break;
+                    case "playouts":
+                        playouts = Long.parseLong(pair[1]);
+                        break;
+                    case "weights":
+                        try {
+                            evaluator = IncrementalEvaluator.load(Path.of(pair[1]));
+                        } catch (IOException e) {
+                            throw new IllegalArgumentException("could not read weights " + pair[1]);
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown setting " + pair[0] + " for " + name);
+                }
+            }
+        }
+        if (evaluator != null && type != EngineType.ALPHA_BETA)
+            throw new IllegalArgumentException("weights are only used by the alpha-beta engine, not by " + name);
+        if (depth < 1 || depth > AlphaBetaSearch.MAX_DEPTH || time < 0 || playouts < 1)
+            throw new IllegalArgumentException("settings of " + name + " are out of range");
+
+        EngineType engineType = type;
+        int engineDepth = depth;
+        long engineTime = time;
+        long enginePlayouts = playouts;
+        IncrementalEvaluator weights = evaluator;
+        Supplier<SearchEngine> engines = () -> {
+            SearchEngine engine = (weights != null) ?
+                    new AlphaBetaSearch(weights.copy(), new TranspositionTable(SelfPlay.TABLE_MB)) :
+                    CheckersComputerPlayer.createEngine(engineType, SelfPlay.TABLE_MB);
+            engine.setThreads(1);
+            engine.setTimeLimit(engineTime);
+            if (engine instanceof AlphaBetaSearch)
+                ((AlphaBetaSearch) engine).setMaxDepth(engineDepth);
+            else if (engine instanceof MonteCarloSearch)
+                ((MonteCarloSearch) engine).setMaxPlayouts(enginePlayouts);
+            return engine;
+        };
+        tournament.addPlayer(name, engines);
+    }
+
+    /**
+     * reads openings from a file with one line of moves per opening, skipping lines whose moves are not legal from
+     * the start or leave the side to move without a move
+     * @param file
+     * @return List of packed move arrays
+     * @throws IOException
+     */
+    private static List<int[]> readOpenings(Path file) throws IOException {
+        List<int[]> openings = new ArrayList<>();
+        List<String> lines = Files.readAllLines(file);
+        for (int line = 0; line < lines.size(); line++) {
+            String text = lines.get(line).trim();
+            if (text.isEmpty() || text.startsWith("#"))
+                continue;
+            try {
+                String[] split = text.split("\\s+");
+                int[] moves = new int[split.length];
+                CheckersLogic logic = new CheckersLogic();
+                for (int i = 0; i < split.length; i++) {
+                    moves[i] = InputHelper.convertStringToMove(split[i]);
+                    logic.makeMove(moves[i]);
+                }
+                if (logic.getLegalMoveCount() == 0)
+                    throw new Exception();
+                openings.add(moves);
+            } catch (Exception e) {
+                System.out.println("Skipping line " + (line + 1) + ", it is not a list of legal moves");
+            }
+        }
+        return openings;
+    }
+
+    /**
+     * prints the result of a player against an opponent with the Elo difference and its error bar
+     * @param label
+     * @param wins
+     * @param draws
+     * @param losses
+     */
+    private static void report(String label, int wins, int draws, int losses) {
+        double[] elo = Tournament.eloRange(wins, draws, losses);
+        System.out.printf("%-30s +%d =%d -%d  Elo %s [%s, %s]%n", label, wins, draws, losses, formatElo(elo[0]),
+                formatElo(elo[1]), formatElo(elo[2]));
+    }
+
+    private static String formatElo(double elo) {
+        if (Double.isInfinite(elo))
+            return (elo > 0) ? "+inf" : "-inf";
+        // adding zero turns the -0 of an even score into 0
+        return String.format("%+.0f", elo + 0.0);
+    }
+
+    private static void usage() {
+        System.out.println("usage: CheckersTournament [--openings n] [--plies p] [--file openings] [--threads n] " +
+                "[--maxplies plies] [--seed s] player player...");
+        System.out.println("  player: name:engine=ALPHA_BETA|MONTE_CARLO|RANDOM,depth=d,time=ms,playouts=n," +
+                "weights=file");
+    }
+}
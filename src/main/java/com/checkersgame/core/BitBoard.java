@@ -0,0 +1,414 @@
+package com.checkersgame.core;
+
+/** A compact position for a game of checkers.  Only the 32 dark squares can hold a piece so each color is kept
+ * as one 32 bit occupancy mask plus a mask of the pieces that are kings.  The position also knows whose turn it
+ * is and keeps its Zobrist hash up to date as pieces are set and removed.  Square 0 is 1A, square 3 is 1G,
+ * square 4 is 2B and so on up to square 31 which is 8H.
+ *
+ * Stepping every piece of a mask one diagonal is a couple of shifts, which lets copies, game over checks and
+ * move generation run as integer operations instead of walking Square and Piece objects.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.enums.Color;
+import com.checkersgame.core.enums.ColumnLabel;
+
+public class BitBoard {
+
+    public static final int SQUARES = 32;
+
+    public static final int UP_LEFT = 0;
+    public static final int UP_RIGHT = 1;
+    public static final int DOWN_LEFT = 2;
+    public static final int DOWN_RIGHT = 3;
+
+    private static final int EVEN_ROWS = 0x0F0F0F0F;
+    private static final int ODD_ROWS = 0xF0F0F0F0;
+    private static final int EVEN_ROWS_NOT_LEFT = 0x0E0E0E0E;
+    private static final int ODD_ROWS_NOT_RIGHT = 0x70707070;
+
+    private static final int DARK_START = 0x00000FFF;
+    private static final int LIGHT_START = 0xFFF00000;
+
+    private static final Coordinate[] COORDINATES = new Coordinate[SQUARES];
+
+    static {
+        for (int square = 0; square < SQUARES; square++)
+            COORDINATES[square] = new Coordinate(ColumnLabel.valueOf(columnOf(square)), rowOf(square));
+    }
+
+    private int dark;
+    private int light;
+    private int kings;
+    private Color turn = Color.DARK;
+    private long hash;
+
+    /**
+     * creates an empty position with dark to move
+     */
+    public BitBoard() {
+    }
+
+    /**
+     * creates a position from the occupancy masks with dark to move
+     * @param dark
+     * @param light
+     * @param kings
+     */
+    public BitBoard(int dark, int light, int kings) {
+        this(dark, light, kings, Color.DARK);
+    }
+
+    /**
+     * creates a position from the occupancy masks and the color whose turn it is
+     * @param dark
+     * @param light
+     * @param kings
+     * @param turn
+     */
+    public BitBoard(int dark, int light, int kings, Color turn) {
+        this.dark = dark;
+        this.light = light;
+        this.kings = kings & (dark | light);
+        this.turn = turn;
+        this.hash = Zobrist.hash(this.dark, this.light, this.kings, turn);
+    }
+
+    /**
+     * copy constructor, copies the hash instead of computing it again
+     * @param other
+     */
+    private BitBoard(BitBoard other) {
+        this.dark = other.dark;
+        this.light = other.light;
+        this.kings = other.kings;
+        this.turn = other.turn;
+        this.hash = other.hash;
+    }
+
+    /**
+     * creates the position that every game starts from
+     * @return BitBoard
+     */
+    public static BitBoard startingPosition() {
+        return new BitBoard(DARK_START, LIGHT_START, 0);
+    }
+
+    /**
+     * returns a copy of this position
+     * @return BitBoard
+     */
+    public BitBoard copy() {
+        return new BitBoard(this);
+    }
+
+    /**
+     * gets the square index of a row and column, or -1 if it is not a dark square on the board
+     * @param row
+     * @param col
+     * @return int
+     */
+    public static int squareIndex(int row, ColumnLabel col) {
+        if (col == null || row < 1 || row > 8 || ((row + col.getValue()) & 1) == 0)
+            return -1;
+        return ((row - 1) << 2) + (col.getValue() >> 1);
+    }
+
+    /**
+     * gets the square index of a coordinate, or -1 if it is not a dark square on the board
+     * @param coordinate
+     * @return int
+     */
+    public static int squareIndex(Coordinate coordinate) {
+        return squareIndex(coordinate.getRow(), coordinate.getCol());
+    }
+
+    /**
+     * gets the row (1 - 8) of a square index
+     * @param square
+     * @return int
+     */
+    public static int rowOf(int square) {
+        return (square >> 2) + 1;
+    }
+
+    /**
+     * gets the column value (0 - 7) of a square index
+     * @param square
+     * @return int
+     */
+    public static int columnOf(int square) {
+        return ((square & 3) << 1) + ((square >> 2) & 1);
+    }
+
+    /**
+     * gets the coordinate of a square index.  Coordinates are immutable so the same object is shared.
+     * @param square
+     * @return Coordinate
+     */
+    public static Coordinate coordinateOf(int square) {
+        return COORDINATES[square];
+    }
+
+    /**
+     * moves every square of a mask one diagonal in a direction.  Squares that would leave the board are dropped.
+     * @param mask
+     * @param direction
+     * @return int
+     */
+    public static int step(int mask, int direction) {
+        switch (direction) {
+            case UP_LEFT:
+                return ((mask & ODD_ROWS) << 4) | ((mask & EVEN_ROWS_NOT_LEFT) << 3);
+            case UP_RIGHT:
+                return ((mask & EVEN_ROWS) << 4) | ((mask & ODD_ROWS_NOT_RIGHT) << 5);
+            case DOWN_LEFT:
+                return ((mask & ODD_ROWS) >>> 4) | ((mask & EVEN_ROWS_NOT_LEFT) >>> 5);
+            case DOWN_RIGHT:
+                return ((mask & EVEN_ROWS) >>> 4) | ((mask & ODD_ROWS_NOT_RIGHT) >>> 3);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * checks if a direction is forward for the men of a color.  Dark moves up the board and light moves down.
+     * @param color
+     * @param direction
+     * @return boolean
+     */
+    public static boolean isForward(Color color, int direction) {
+        return (color == Color.DARK) == (direction == UP_LEFT || direction == UP_RIGHT);
+    }
+
+    /**
+     * gets the mask of the pieces of a color
+     * @param color
+     * @return int
+     */
+    public int getPieces(Color color) {
+        return (color == Color.DARK) ? dark : light;
+    }
+
+    /**
+     * gets the mask of the kings of both colors
+     * @return int
+     */
+    public int getKings() {
+        return kings;
+    }
+
+    /**
+     * gets the mask of all the occupied squares
+     * @return int
+     */
+    public int getOccupied() {
+        return dark | light;
+    }
+
+    /**
+     * gets the mask of all the empty squares
+     * @return int
+     */
+    public int getEmpty() {
+        return ~(dark | light);
+    }
+
+    /**
+     * gets the color whose turn it is
+     * @return Color
+     */
+    public Color getTurn() {
+        return turn;
+    }
+
+    /**
+     * hands the turn to the other color
+     */
+    public void switchTurn() {
+        turn = (turn == Color.DARK) ? Color.LIGHT : Color.DARK;
+        hash ^= Zobrist.sideKey();
+    }
+
+    /**
+     * gets the Zobrist hash of the position
+     * @return long
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * gets the color of the piece on a square, or null if it is empty
+     * @param square
+     * @return Color
+     */
+    public Color getColorAt(int square) {
+        int bit = 1 << square;
+        if ((dark & bit) != 0) return Color.DARK;
+        if ((light & bit) != 0) return Color.LIGHT;
+        return null;
+    }
+
+    /**
+     * checks if the piece on a square is a king
+     * @param square
+     * @return boolean
+     */
+    public boolean isKing(int square) {
+        return (kings & (1 << square)) != 0;
+    }
+
+    /**
+     * puts a piece on a square, replacing anything that was there
+     * @param square
+     * @param color
+     * @param king
+     */
+    public void setPiece(int square, Color color, boolean king) {
+        removePiece(square);
+        int bit = 1 << square;
+        if (color == Color.DARK) dark |= bit;
+        else light |= bit;
+        if (king) kings |= bit;
+        hash ^= Zobrist.pieceKey(color, king, square);
+    }
+
+    /**
+     * removes the piece on a square
+     * @param square
+     */
+    public void removePiece(int square) {
+        Color color = getColorAt(square);
+        if (color == null)
+            return;
+        hash ^= Zobrist.pieceKey(color, isKing(square), square);
+        int bit = ~(1 << square);
+        dark &= bit;
+        light &= bit;
+        kings &= bit;
+    }
+
+    /**
+     * plays a packed move for the color whose turn it is and hands the turn over.  The move is not checked, it
+     * should come from MoveGenerator.
+     * @param move
+     * @return int mask of the jumped pieces that were kings, needed to unmake the move
+     */
+    public int makeMove(int move) {
+        int from = Move.getFrom(move);
+        int to = Move.getTo(move);
+        int captured = Move.getCaptured(move);
+        int path = (1 << from) ^ (1 << to);
+        int capturedKings = kings & captured;
+        boolean king = (kings & (1 << from)) != 0;
+        Color opponent = (turn == Color.DARK) ? Color.LIGHT : Color.DARK;
+
+        hash ^= Zobrist.pieceKey(turn, king, from) ^ Zobrist.pieceKey(turn, king, to);
+        for (int pieces = captured; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            hash ^= Zobrist.pieceKey(opponent, (capturedKings & (1 << square)) != 0, square);
+        }
+
+        if (turn == Color.DARK) {
+            dark ^= path;
+            light &= ~captured;
+        } else {
+            light ^= path;
+            dark &= ~captured;
+        }
+        if (king)
+            kings ^= path;
+        kings &= ~captured;
+        switchTurn();
+        return capturedKings;
+    }
+
+    /**
+     * takes back the last move played with makeMove
+     * @param move
+     * @param capturedKings the value makeMove returned
+     * @param previousHash the hash before the move was made
+     */
+    public void unmakeMove(int move, int capturedKings, long previousHash) {
+        turn = (turn == Color.DARK) ? Color.LIGHT : Color.DARK;
+        int from = Move.getFrom(move);
+        int to = Move.getTo(move);
+        int captured = Move.getCaptured(move);
+        int path = (1 << from) ^ (1 << to);
+        boolean king = (kings & (1 << to)) != 0;
+
+        if (turn == Color.DARK) {
+            dark ^= path;
+            light |= captured;
+        } else {
+            light ^= path;
+            dark |= captured;
+        }
+        if (king)
+            kings ^= path;
+        kings |= capturedKings;
+        hash = previousHash;
+    }
+
+    /**
+     * counts the pieces of a color
+     * @param color
+     * @return int
+     */
+    public int count(Color color) {
+        return Integer.bitCount(getPieces(color));
+    }
+
+    /**
+     * gets the mask of the empty squares the pieces of a color could reach with a single move or jump
+     * @param color
+     * @return int
+     */
+    public int getTargets(Color color) {
+        int own = getPieces(color);
+        int opponent = (color == Color.DARK) ? light : dark;
+        int empty = getEmpty();
+        int targets = 0;
+        for (int direction = UP_LEFT; direction <= DOWN_RIGHT; direction++) {
+            int movers = isForward(color, direction) ? own : own & kings;
+            int next = step(movers, direction);
+            targets |= (next & empty) | (step(next & opponent, direction) & empty);
+        }
+        return targets;
+    }
+
+    /**
+     * checks if a color has any move left to make
+     * @param color
+     * @return boolean
+     */
+    public boolean hasMoves(Color color) {
+        return getTargets(color) != 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BitBoard that = (BitBoard) o;
+        return dark == that.dark && light == that.light && kings == that.kings && turn == that.turn;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+        return "BitBoard{" +
+                "dark=" + Integer.toHexString(dark) +
+                ", light=" + Integer.toHexString(light) +
+                ", kings=" + Integer.toHexString(kings) +
+                ", turn=" + turn +
+                '}';
+    }
+}
@@ -10,22 +10,39 @@ package com.checkersgame.core;
 import com.checkersgame.core.enums.Color;
 import com.checkersgame.core.enums.ColumnLabel;
 
-import java.util.LinkedList;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Board {
 
     private final int BOARD_SIZE = 8;
-    private List<Piece> darkPieces;
-    private List<Piece> lightPieces;
+    private final Piece[] pieceIndex = new Piece[BitBoard.SQUARES];
+    private final List<Piece> darkPieces = new PieceView(Color.DARK);
+    private final List<Piece> lightPieces = new PieceView(Color.LIGHT);
     private Square[][] board;
+    private BitBoard bits;
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+    private final List<BoardListener> listeners = new CopyOnWriteArrayList<>();
+    private int changedSquares;
 
     /**
      * Constructor that creates new board with pieces in position
      */
     public Board() {
-        darkPieces = new LinkedList<>();
-        lightPieces = new LinkedList<>();
+        this(BitBoard.startingPosition());
+    }
+
+    /**
+     * Constructor that creates a board with the pieces of a position.  The Square and Piece objects are views of
+     * the position and keep it up to date as pieces are set and removed.
+     * @param position
+     */
+    public Board(BitBoard position) {
+        bits = new BitBoard();
         board = new Square[BOARD_SIZE][BOARD_SIZE];
         for (int i = 0; i < board.length; i++) {
             int column = 0;
@@ -33,34 +50,47 @@ public class Board {
             for (ColumnLabel col : ColumnLabel.values()) {
                 Square square = new Square(new Coordinate(col, BOARD_SIZE - i), currentColor, this);
                 if (currentColor == Color.DARK) {
-                    if (i < 3) {
-                        Piece lp = new Piece(Color.LIGHT, square, this);
-                        square.setPiece(lp);
-                    }
-                    if (i > 4) {
-                        Piece dp = new Piece(Color.DARK, square, this);
-                        square.setPiece(dp);
-                    }
+                    Color pieceColor = position.getColorAt(square.getIndex());
+                    if (pieceColor != null)
+                        square.setPiece(new Piece(pieceColor, square, this, position.isKing(square.getIndex())));
                 }
                 board[i][column] = square;
                 currentColor = (currentColor == Color.DARK) ? Color.LIGHT : Color.DARK;
                 column++;
             }
         }
+        if (position.getTurn() != bits.getTurn())
+            bits.switchTurn();
+        changedSquares = 0;
     }
 
     /**
-     * Updates the Square matrix with the new posiiton of pieces
+     * Sends the squares that changed since the last update to the listeners.  Only the squares a move touched
+     * are reported, the Square matrix itself never has to be rebuilt.
      */
     public void updateBoard() {
-        for (int i = 0; i < board.length; i++) {
-            int column = 0;
-            for (ColumnLabel col : ColumnLabel.values()) {
-                if (getSquare(BOARD_SIZE - i, col).getColor() == Color.DARK)
-                    board[i][column] = getSquare(BOARD_SIZE - i, col);
-                column++;
-            }
-        }
+        int changed = changedSquares;
+        if (changed == 0)
+            return;
+        changedSquares = 0;
+        for (BoardListener listener : listeners)
+            listener.boardChanged(this, changed);
+    }
+
+    /**
+     * subscribes a listener to the squares that change after each move
+     * @param listener
+     */
+    public void addBoardListener(BoardListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * unsubscribes a listener
+     * @param listener
+     */
+    public void removeBoardListener(BoardListener listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -72,7 +102,31 @@ public class Board {
     }
 
     /**
-     * returns the pieces of a certain color - light or dark.
+     * gets the bitboard backing the board.  It is the live position, so copy it before changing it.
+     * @return BitBoard
+     */
+    public BitBoard getBitBoard() {
+        return bits;
+    }
+
+    /**
+     * gets the Zobrist hash of the position, kept up to date as pieces are set and removed and turns switch
+     * @return long
+     */
+    public long getHash() {
+        return bits.getHash();
+    }
+
+    /**
+     * hands the turn in the position to the other color
+     */
+    public void switchTurn() {
+        bits.switchTurn();
+    }
+
+    /**
+     * returns the pieces of a certain color - light or dark.  The list is a read only view of the board that
+     * follows the pieces as they move.
      * @param color
      * @return List composed of Pieces
      */
@@ -118,37 +172,172 @@ public class Board {
         return getSquare(row, col).getCurrentPiece();
     }
 
+    /**
+     * gets the Square object at a bitboard square index
+     * @param index
+     * @return Square
+     */
+    public Square getSquare(int index) {
+        return board[BOARD_SIZE - BitBoard.rowOf(index)][BitBoard.columnOf(index)];
+    }
+
+    /**
+     * gets the piece on a bitboard square index
+     * @param index
+     * @return Piece
+     */
+    public Piece getPieceAt(int index) {
+        return pieceIndex[index];
+    }
+
     /**
      * returns a list of all the moves that are currently possible for a color
      * @param color
      * @return List of Coordinates
      */
     public List<Coordinate> getColorPiecesMove(Color color) {
-        List<Coordinate> coordinatesList = new LinkedList<>();
-        List<Piece> pieces = (color == Color.DARK) ? darkPieces : lightPieces;
-        for (Piece p : pieces)
-            for (Coordinate c : p.getValidMoves())
-                if (!coordinatesList.contains(c)) coordinatesList.add(c);
+        int count = generateMoves(color, moveBuffer);
+        int targets = 0;
+        for (int i = 0; i < count; i++)
+            targets |= 1 << Move.getTo(moveBuffer[i]);
+
+        List<Coordinate> coordinatesList = new ArrayList<>(Integer.bitCount(targets));
+        while (targets != 0) {
+            coordinatesList.add(BitBoard.coordinateOf(Integer.numberOfTrailingZeros(targets)));
+            targets &= targets - 1;
+        }
         return coordinatesList;
     }
 
+    /**
+     * writes every move a color can make as packed ints into a buffer the caller reuses
+     * @param color
+     * @param moves buffer of at least MoveGenerator.MAX_MOVES
+     * @return int the number of moves written
+     */
+    public int generateMoves(Color color, int[] moves) {
+        return MoveGenerator.generate(bits, color, moves);
+    }
+
+    /**
+     * plays a packed move on the squares of the board.  The move is not checked and the turn is not switched.
+     * @param move
+     * @return int mask of the jumped pieces that were kings, needed to unmake the move
+     */
+    public int makeMove(int move) {
+        int captured = Move.getCaptured(move);
+        int capturedKings = bits.getKings() & captured;
+        Square fromSquare = getSquare(Move.getFrom(move));
+        Square toSquare = getSquare(Move.getTo(move));
+        Piece piece = fromSquare.getCurrentPiece();
+
+        fromSquare.removePiece();
+        for (int pieces = captured; pieces != 0; pieces &= pieces - 1)
+            getSquare(Integer.numberOfTrailingZeros(pieces)).removePiece();
+        piece.setCurrentSquare(toSquare);
+        toSquare.setPiece(piece);
+        updateBoard();
+        return capturedKings;
+    }
+
+    /**
+     * takes back a move played with makeMove, putting the jumped pieces back on their squares
+     * @param move
+     * @param capturedKings the value makeMove returned
+     */
+    public void unmakeMove(int move, int capturedKings) {
+        Square fromSquare = getSquare(Move.getFrom(move));
+        Square toSquare = getSquare(Move.getTo(move));
+        Piece piece = toSquare.getCurrentPiece();
+        Color opponent = (piece.getColor() == Color.DARK) ? Color.LIGHT : Color.DARK;
+
+        toSquare.removePiece();
+        piece.setCurrentSquare(fromSquare);
+        fromSquare.setPiece(piece);
+        for (int pieces = Move.getCaptured(move); pieces != 0; pieces &= pieces - 1) {
+            int index = Integer.numberOfTrailingZeros(pieces);
+            Square square = getSquare(index);
+            square.setPiece(new Piece(opponent, square, this, (capturedKings & (1 << index)) != 0));
+        }
+        updateBoard();
+    }
+
+    /**
+     * gets the move buffer shared by the pieces on this board
+     * @return int[]
+     */
+    int[] getMoveBuffer() {
+        return moveBuffer;
+    }
+
     /**
      * adds reference to piece to keep count on the board
      * @param piece
+     * @param square
      */
-    public void setPieceOnBoard(Piece piece) {
-        List<Piece> pieces = (piece.getColor() == Color.DARK) ? darkPieces : lightPieces;
-        if (!pieces.contains(piece)) pieces.add(piece);
+    public void setPieceOnBoard(Piece piece, Square square) {
+        pieceIndex[square.getIndex()] = piece;
+        changedSquares |= 1 << square.getIndex();
+        bits.setPiece(square.getIndex(), piece.getColor(), piece.isKing());
     }
 
     /**
      * removes reference to piece to keep count on the board
      * @param piece
+     * @param square
      */
-    public void removePieceOnBoard(Piece piece) {
+    public void removePieceOnBoard(Piece piece, Square square) {
         if (piece == null) return;
-        List<Piece> pieces = (piece.getColor() == Color.DARK) ? darkPieces : lightPieces;
-        pieces.removeIf(cord -> cord.getCurrentSquare().getCoordinate().equals(piece.getCurrentSquare().getCoordinate()));
+        pieceIndex[square.getIndex()] = null;
+        changedSquares |= 1 << square.getIndex();
+        bits.removePiece(square.getIndex());
+    }
+
+    /**
+     * list of the pieces of one color, read from the bitboard and the piece index
+     */
+    private class PieceView extends AbstractList<Piece> {
+        private final Color color;
+
+        PieceView(Color color) {
+            this.color = color;
+        }
+
+        @Override
+        public Piece get(int index) {
+            int pieces = bits.getPieces(color);
+            if (index < 0 || index >= Integer.bitCount(pieces))
+                throw new IndexOutOfBoundsException(index);
+            for (int i = 0; i < index; i++)
+                pieces &= pieces - 1;
+            return pieceIndex[Integer.numberOfTrailingZeros(pieces)];
+        }
+
+        @Override
+        public int size() {
+            return bits.count(color);
+        }
+
+        @Override
+        public Iterator<Piece> iterator() {
+            return new Iterator<>() {
+                private int remaining = bits.getPieces(color);
+
+                @Override
+                public boolean hasNext() {
+                    return remaining != 0;
+                }
+
+                @Override
+                public Piece next() {
+                    if (remaining == 0)
+                        throw new NoSuchElementException();
+                    int square = Integer.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+                    return pieceIndex[square];
+                }
+            };
+        }
     }
 
     @Override
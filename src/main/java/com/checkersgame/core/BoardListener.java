@@ -0,0 +1,17 @@
+package com.checkersgame.core;
+
+/** Listener that gets told which squares of a board changed after a move, so a ui only has to redraw or send
+ * the squares that are different.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+public interface BoardListener {
+
+    /**
+     * called after a move with the squares that changed
+     * @param board
+     * @param changedSquares mask of bitboard square indexes
+     */
+    void boardChanged(Board board, int changedSquares);
+}
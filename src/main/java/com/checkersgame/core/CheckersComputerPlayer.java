@@ -1,12 +1,26 @@
 package com.checkersgame.core;
 
+import com.checkersgame.core.engine.AlphaBetaSearch;
+import com.checkersgame.core.engine.EndgameTablebase;
+import com.checkersgame.core.engine.Evaluator;
+import com.checkersgame.core.engine.IncrementalEvaluator;
+import com.checkersgame.core.engine.MonteCarloSearch;
+import com.checkersgame.core.engine.OpeningBook;
+import com.checkersgame.core.engine.RandomSearch;
+import com.checkersgame.core.engine.SearchEngine;
+import com.checkersgame.core.engine.TranspositionTable;
 import com.checkersgame.core.enums.Color;
+import com.checkersgame.core.enums.EngineType;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Random;
 
 /**
+ * The computer opponent.  Plays from the opening book while the position is in it and plays the winning move
+ * from the endgame tables once it has a won endgame.  Otherwise it searches the position with an alpha-beta or
+ * Monte Carlo search and plays the best move it finds, or with the random engine plays any legal move.
+ *
  * @author : Matthew Gutierrez
  * @version : 1.0
  **/
@@ -14,38 +28,193 @@ public class CheckersComputerPlayer {
     private CheckersLogic logic;
     private Color color;
     private Board board;
+    private final SearchEngine engine;
+    private OpeningBook book = defaultBook();
+    private EndgameTablebase tablebase = defaultTablebase();
+    private final Random random = new Random();
+
+    private static OpeningBook sharedBook;
+    private static boolean sharedBookOpened = false;
+    private static EndgameTablebase sharedTablebase;
+    private static boolean sharedTablebaseOpened = false;
 
     public CheckersComputerPlayer(Color color, Board board, CheckersLogic logic) {
+        this(color, board, logic, EngineType.ALPHA_BETA);
+    }
+
+    public CheckersComputerPlayer(Color color, Board board, CheckersLogic logic, EngineType type) {
+        this(color, board, logic, createEngine(type));
+    }
+
+    public CheckersComputerPlayer(Color color, Board board, CheckersLogic logic, SearchEngine engine) {
         this.color = color;
         this.board = board;
         this.logic = logic;
+        this.engine = engine;
     }
 
     /**
-     * gets a random piece from the computers pieces and make a random move on that piece if available.
-     *
-     * @throws Exception
+     * creates an engine of a type with its default settings
+     * @param type
+     * @return SearchEngine
      */
-    public void takeTurn() throws Exception {
-        Coordinate oldCord;
-        List<Piece> pieces = new LinkedList<>(board.getPieces(color));
+    public static SearchEngine createEngine(EngineType type) {
+        if (type == EngineType.MONTE_CARLO)
+            return new MonteCarloSearch();
+        if (type == EngineType.RANDOM)
+            return new RandomSearch();
+        return new AlphaBetaSearch(defaultEvaluator());
+    }
 
-        while (true) {
-            Random randomNumber = new Random();
-            int randomInt = randomNumber.nextInt(pieces.size());
+    /**
+     * creates an engine of a type with its default settings, giving an alpha-beta engine a transposition table of
+     * a size
+     * @param type
+     * @param tableMegabytes
+     * @return SearchEngine
+     */
+    public static SearchEngine createEngine(EngineType type, int tableMegabytes) {
+        if (type == EngineType.ALPHA_BETA)
+            return new AlphaBetaSearch(defaultEvaluator(), new TranspositionTable(tableMegabytes));
+        return createEngine(type);
+    }
 
-            Piece randomPiece = pieces.get(randomInt);
-            if (randomPiece.getValidMoves().size() > 0) {
-                oldCord = randomPiece.getCurrentSquare().getCoordinate();
-                break;
+    /**
+     * gets the evaluator with the weights from the checkers.weights file, falling back to the default weights if
+     * the file can not be read
+     * @return Evaluator
+     */
+    private static Evaluator defaultEvaluator() {
+        try {
+            return IncrementalEvaluator.loadDefault();
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Could not load evaluation weights, using the defaults: " + e.getMessage());
+            return new IncrementalEvaluator();
+        }
+    }
+
+    /**
+     * gets the book named by the checkers.book system property.  It is mapped once and shared by every computer
+     * player, or null if the property is not set or the book can not be read.
+     * @return OpeningBook
+     */
+    private static synchronized OpeningBook defaultBook() {
+        if (!sharedBookOpened) {
+            sharedBookOpened = true;
+            String path = System.getProperty("checkers.book");
+            if (path != null) {
+                try {
+                    sharedBook = OpeningBook.open(Path.of(path));
+                } catch (IOException e) {
+                    System.out.println("Could not open the opening book: " + e.getMessage());
+                }
             }
         }
+        return sharedBook;
+    }
+
+    /**
+     * gets the tables in the directory named by the checkers.tablebase system property.  They are mapped once and
+     * shared by every computer player, or null if the property is not set or the tables can not be read.
+     * @return EndgameTablebase
+     */
+    private static synchronized EndgameTablebase defaultTablebase() {
+        if (!sharedTablebaseOpened) {
+            sharedTablebaseOpened = true;
+            String path = System.getProperty("checkers.tablebase");
+            if (path != null) {
+                try {
+                    sharedTablebase = EndgameTablebase.open(Path.of(path));
+                } catch (IOException e) {
+                    System.out.println("Could not open the endgame tables: " + e.getMessage());
+                }
+            }
+        }
+        return sharedTablebase;
+    }
+
+    /**
+     * sets the endgame tables the computer plays from
+     * @param tablebase the tables, or null to always search
+     */
+    public void setTablebase(EndgameTablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * gets the endgame tables the computer plays from
+     * @return EndgameTablebase
+     */
+    public EndgameTablebase getTablebase() {
+        return tablebase;
+    }
+
+    /**
+     * sets the opening book the computer plays from
+     * @param book the book, or null to always search
+     */
+    public void setBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * gets the opening book the computer plays from
+     * @return OpeningBook
+     */
+    public OpeningBook getBook() {
+        return book;
+    }
+
+    /**
+     * gets the engine the computer uses, to change its limits
+     * @return SearchEngine
+     */
+    public SearchEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * gets the color the computer plays
+     * @return Color
+     */
+    public Color getColor() {
+        return color;
+    }
+
+    /**
+     * picks the move the computer would play in a position, from the book or the endgame tables if they know it and
+     * by searching if not
+     * @param position it is not changed
+     * @return int packed move, or Move.NONE if there are no moves
+     */
+    public int chooseMove(BitBoard position) {
+        if (book != null) {
+            int move = book.probe(position, random);
+            if (move != Move.NONE)
+                return move;
+        }
+        if (tablebase != null) {
+            int move = tablebase.winningMove(position);
+            if (move != Move.NONE)
+                return move;
+        }
+        return engine.search(position);
+    }
+
+    /**
+     * searches for the best move the computer can make and plays it.
+     *
+     * @throws Exception
+     */
+    public void takeTurn() throws Exception {
+        if (logic.getTurnColor() != color)
+            throw new Exception();
 
-        Random randomNumber = new Random();
-        int randomInt = randomNumber.nextInt(board.getPieceAt(oldCord).getValidMoves().size());
+        int move = chooseMove(board.getBitBoard());
+        if (move == Move.NONE)
+            throw new Exception();
 
-        Coordinate newCord = board.getPieceAt(oldCord).getValidMoves().get(randomInt);
-        System.out.println("Computer move: " + oldCord.getRow() + oldCord.getCol() + "-" + newCord.getRow() + newCord.getCol());
-        logic.takeTurn(oldCord, newCord);
+        System.out.println("Computer move: " + Move.toString(move));
+        logic.makeMove(move);
     }
 }
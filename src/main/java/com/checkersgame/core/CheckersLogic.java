@@ -6,9 +6,13 @@ package com.checkersgame.core;
  * @version : 1.0
  **/
 
+import com.checkersgame.core.engine.SearchEngine;
 import com.checkersgame.core.enums.Color;
+import com.checkersgame.core.enums.EngineType;
 import com.checkersgame.core.enums.Player;
 
+import java.util.Arrays;
+
 public class CheckersLogic {
 
     private Board board;
@@ -16,6 +20,17 @@ public class CheckersLogic {
     private Player winner;
     private Player turn;
     private CheckersComputerPlayer computerOpponent = null;
+    private EngineType engineType = defaultEngineType();
+
+    private int[] undoMoves = new int[64];
+    private int[] undoCapturedKings = new int[64];
+    private long[] undoHashes = new long[64];
+    private int undoCount = 0;
+
+    private volatile PositionSnapshot snapshot;
+
+    private final int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
+    private int legalMoveCount = -1;
 
     /**
      * constructor to create new board and the logic for the game
@@ -23,6 +38,7 @@ public class CheckersLogic {
     public CheckersLogic() {
         board = new Board();
         turn = Player.PlayerX;
+        publishSnapshot();
     }
 
     /**
@@ -33,6 +49,37 @@ public class CheckersLogic {
         return board.getBoard();
     }
 
+    /**
+     * gets the last position published.  Safe to call from any thread while the game goes on.
+     * @return PositionSnapshot
+     */
+    public PositionSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * publishes an immutable copy of the current position for readers on other threads
+     */
+    private void publishSnapshot() {
+        snapshot = new PositionSnapshot(board.getBitBoard(), undoCount);
+    }
+
+    /**
+     * subscribes a listener to the squares that change on the board after each move
+     * @param listener
+     */
+    public void addBoardListener(BoardListener listener) {
+        board.addBoardListener(listener);
+    }
+
+    /**
+     * unsubscribes a listener from the board
+     * @param listener
+     */
+    public void removeBoardListener(BoardListener listener) {
+        board.removeBoardListener(listener);
+    }
+
     /**
      * gets the color for the player whose turn it is
      * @return Color
@@ -42,39 +89,70 @@ public class CheckersLogic {
     }
 
     /**
-     * gets called from ui with coordinates and who the player is playing against.  If playing againest a computer then
-     * calls the computer to take a turn
+     * gets called from ui with a packed move and who the player is playing against.  If playing againest a
+     * computer then calls the computer to take a turn
      *
      * @param opponent
-     * @param oldCord
-     * @param finalCord
+     * @param move
      */
-    public void handleTurn(Player opponent, Coordinate oldCord, Coordinate finalCord) throws Exception{
-        takeTurn(oldCord, finalCord);
+    public void handleTurn(Player opponent, int move) throws Exception{
+        makeMove(move);
 
-        if (opponent == Player.ComputerPlayer && isActive(getTurnColor())) {
-            if (computerOpponent == null)
-                computerOpponent = new CheckersComputerPlayer(Color.LIGHT, board, this);
-            computerOpponent.takeTurn();
-        }
+        if (opponent == Player.ComputerPlayer && isActive(getTurnColor()))
+            getComputerOpponent().takeTurn();
     }
 
     /**
-     * This is called from the ui and does the same thing as handleturn however for a double jump
-     *
-     * @param opponent
-     * @param oldCord
-     * @param middleCord
-     * @param lastCord
+     * gets the computer opponent, creating it the first time so its search can be configured before it plays
+     * @return CheckersComputerPlayer
      */
-    public void handleTurn(Player opponent, Coordinate oldCord, Coordinate middleCord, Coordinate lastCord) throws Exception{
-        takeTurn(oldCord, middleCord, lastCord);
+    public CheckersComputerPlayer getComputerOpponent() {
+        if (computerOpponent == null)
+            computerOpponent = new CheckersComputerPlayer(Color.LIGHT, board, this, engineType);
+        return computerOpponent;
+    }
 
-        if (opponent == Player.ComputerPlayer && isActive(getTurnColor())) {
-            if (computerOpponent == null)
-                computerOpponent = new CheckersComputerPlayer(Color.LIGHT, board, this);
-            computerOpponent.takeTurn();
-        }
+    /**
+     * creates a computer player for this game that searches with its own engine, so games can be played between
+     * two computer players without a ui
+     * @param color the color it plays
+     * @param engine
+     * @return CheckersComputerPlayer
+     */
+    public CheckersComputerPlayer createComputerPlayer(Color color, SearchEngine engine) {
+        return new CheckersComputerPlayer(color, board, this, engine);
+    }
+
+    /**
+     * sets the kind of engine the computer opponent plays with.  Replaces the opponent if it was already created,
+     * stopping the threads of its engine.
+     * @param engineType
+     */
+    public void setEngineType(EngineType engineType) {
+        this.engineType = engineType;
+        if (computerOpponent != null)
+            computerOpponent.getEngine().close();
+        computerOpponent = null;
+    }
+
+    /**
+     * gets the kind of engine the computer opponent plays with
+     * @return EngineType
+     */
+    public EngineType getEngineType() {
+        return engineType;
+    }
+
+    /**
+     * gets the engine named by the checkers.engine system property, alpha-beta if it is not set or not known
+     * @return EngineType
+     */
+    private static EngineType defaultEngineType() {
+        String name = System.getProperty("checkers.engine");
+        for (EngineType type : EngineType.values())
+            if (type.name().equalsIgnoreCase(name))
+                return type;
+        return EngineType.ALPHA_BETA;
     }
 
     /**
@@ -83,47 +161,94 @@ public class CheckersLogic {
      * @param newCord
      */
     public void takeTurn(Coordinate oldCord, Coordinate newCord) throws Exception{
-        if (board.getPieceAt(oldCord).getColor() != getTurnColor())
+        int move = Move.fromPath(oldCord, newCord);
+        if (move == Move.NONE)
+            throw new Exception();
+        makeMove(move);
+    }
+
+    /**
+     * plays a packed move for the player whose turn it is and remembers how to take it back
+     * @param move
+     * @throws Exception if the move is not legal
+     */
+    public void makeMove(int move) throws Exception {
+        if (!isLegalMove(move))
             throw new Exception();
 
-        if (Math.abs(oldCord.getRow() - newCord.getRow()) > 1)
-            board.getPieceAt(oldCord).jump(newCord);
-        else {
-            board.getPieceAt(oldCord).move(newCord);
+        if (undoCount == undoMoves.length) {
+            undoMoves = Arrays.copyOf(undoMoves, undoCount * 2);
+            undoCapturedKings = Arrays.copyOf(undoCapturedKings, undoCount * 2);
+            undoHashes = Arrays.copyOf(undoHashes, undoCount * 2);
         }
+        undoMoves[undoCount] = move;
+        undoHashes[undoCount] = board.getHash();
+        undoCapturedKings[undoCount] = board.makeMove(move);
+        undoCount++;
         switchTurn();
+        publishSnapshot();
     }
 
     /**
-     * this is for a double jump when a person tries to make one
-     * @param oldCord
-     * @param middleCord
-     * @param lastCord
+     * takes back the last move made, putting back any pieces it jumped
+     * @throws Exception if there is no move to take back
      */
-    public void takeTurn(Coordinate oldCord, Coordinate middleCord, Coordinate lastCord) throws Exception{
-        if (board.getPieceAt(oldCord).getColor() != getTurnColor())
+    public void unmakeMove() throws Exception {
+        if (undoCount == 0)
             throw new Exception();
 
-        if (Math.abs(oldCord.getRow() - middleCord.getRow()) > 1 &&
-                Math.abs(middleCord.getRow() - lastCord.getRow()) > 1 &&
-                board.getPieceAt(oldCord).isValidJumpMove(middleCord))
-        {
-            Piece jumpedPiece = board.getPieceAt(oldCord).getJumpedPiece(middleCord);
-            board.getPieceAt(oldCord).jump(middleCord);
-
-            if (board.getPieceAt(middleCord).isValidJumpMove(lastCord)) {
-                board.getPieceAt(middleCord).jump(lastCord);
-                switchTurn();
-            }
-            else {
-                board.getSquare(oldCord).setPiece(board.getPieceAt(middleCord));
-                board.getSquare(jumpedPiece.getCurrentSquare().getCoordinate()).setPiece(jumpedPiece);
-                board.getSquare(middleCord).removePiece();
-                throw new Exception();
-            }
-        } else {
-            throw new Exception();
-        }
+        undoCount--;
+        board.unmakeMove(undoMoves[undoCount], undoCapturedKings[undoCount]);
+        switchTurn();
+        active = true;
+        winner = null;
+        publishSnapshot();
+
+        if (board.getHash() != undoHashes[undoCount])
+            throw new IllegalStateException("board does not match the position before the move");
+    }
+
+    /**
+     * checks a move against the legal moves of the current position
+     * @param move
+     * @return boolean
+     */
+    public boolean isLegalMove(int move) {
+        int count = getLegalMoveCount();
+        for (int i = 0; i < count; i++)
+            if (legalMoves[i] == move)
+                return true;
+        return false;
+    }
+
+    /**
+     * gets the number of legal moves for the player whose turn it is.  The moves are generated once per position
+     * and kept until the next move is made or taken back.
+     * @return int
+     */
+    public int getLegalMoveCount() {
+        if (legalMoveCount < 0)
+            legalMoveCount = board.generateMoves(getTurnColor(), legalMoves);
+        return legalMoveCount;
+    }
+
+    /**
+     * gets one of the legal moves for the player whose turn it is
+     * @param index less than getLegalMoveCount()
+     * @return int packed move
+     */
+    public int getLegalMove(int index) {
+        if (index < 0 || index >= getLegalMoveCount())
+            throw new IndexOutOfBoundsException(index);
+        return legalMoves[index];
+    }
+
+    /**
+     * gets the moves played so far, oldest first
+     * @return int[] packed moves
+     */
+    public int[] getMoveHistory() {
+        return Arrays.copyOf(undoMoves, undoCount);
     }
 
     /**
@@ -140,8 +265,9 @@ public class CheckersLogic {
      * @return Boolean
      */
     public Boolean isActive(Color color) {
-        if (board.getPieces(color).size() < 1 ||
-                board.getColorPiecesMove(color).size() < 1) {
+        BitBoard position = board.getBitBoard();
+        boolean noMoves = (color == getTurnColor()) ? getLegalMoveCount() == 0 : !position.hasMoves(color);
+        if (position.count(color) < 1 || noMoves) {
             active = false;
             winner = (color == Color.DARK) ? Player.PlayerO : Player.PlayerX;
         }
@@ -169,5 +295,15 @@ public class CheckersLogic {
      */
     public void switchTurn() {
         this.turn = this.turn == Player.PlayerX ? Player.PlayerO : Player.PlayerX;
+        board.switchTurn();
+        legalMoveCount = -1;
+    }
+
+    /**
+     * gets the Zobrist hash of the current position, including whose turn it is
+     * @return long
+     */
+    public long getPositionHash() {
+        return board.getHash();
     }
 }
@@ -45,7 +45,7 @@ public class Coordinate implements java.io.Serializable{
 
     @Override
     public int hashCode() {
-        return Objects.hash(col, row);
+        return (row << 3) + (col == null ? -1 : col.getValue());
     }
 
     @Override
@@ -0,0 +1,194 @@
+package com.checkersgame.core;
+
+/** Static methods to pack a move into a single int so moves can be generated and passed around without
+ * creating objects.
+ *
+ * bits 0 - 4 are the square the piece starts on, bits 5 - 8 are the number of jumps (0 for a plain move) and
+ * from bit 9 on every step of the move takes two bits holding the direction it went in.  The directions are the
+ * path of the move, so a jump chain of any length up to MAX_JUMPS is still one int.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.enums.ColumnLabel;
+
+public final class Move {
+
+    public static final int NONE = -1;
+
+    /**
+     * most jumps that fit in one packed move
+     */
+    public static final int MAX_JUMPS = 11;
+
+    private static final int FROM_MASK = 0x1F;
+    private static final int JUMPS_SHIFT = 5;
+    private static final int JUMPS_MASK = 0xF;
+    private static final int PATH_SHIFT = 9;
+
+    private Move() {
+    }
+
+    /**
+     * packs a plain one square move
+     * @param from
+     * @param direction
+     * @return int
+     */
+    public static int simple(int from, int direction) {
+        return from | (direction << PATH_SHIFT);
+    }
+
+    /**
+     * packs a single jump
+     * @param from
+     * @param direction
+     * @return int
+     */
+    public static int jump(int from, int direction) {
+        return from | (1 << JUMPS_SHIFT) | (direction << PATH_SHIFT);
+    }
+
+    /**
+     * adds another jump to the end of a jump move
+     * @param move
+     * @param direction
+     * @return int
+     */
+    public static int addJump(int move, int direction) {
+        int jumps = getJumps(move);
+        return (move & ~(JUMPS_MASK << JUMPS_SHIFT)) | ((jumps + 1) << JUMPS_SHIFT) |
+                (direction << (PATH_SHIFT + (jumps << 1)));
+    }
+
+    /**
+     * packs the squares a piece visits into a move.  Two squares next to each other are a plain move, otherwise
+     * every square after the first has to be where a jump from the one before lands.  The move is not checked
+     * against a position.
+     * @param path
+     * @return int the move, or NONE if the squares do not make a move
+     */
+    public static int fromPath(Coordinate... path) {
+        if (path.length < 2 || path.length > MAX_JUMPS + 1)
+            return NONE;
+
+        int[] squares = new int[path.length];
+        for (int i = 0; i < path.length; i++) {
+            squares[i] = BitBoard.squareIndex(path[i]);
+            if (squares[i] < 0)
+                return NONE;
+        }
+
+        if (path.length == 2) {
+            int direction = SquareTables.stepDirection(squares[0], squares[1]);
+            if (direction >= 0)
+                return simple(squares[0], direction);
+        }
+
+        int move = NONE;
+        for (int i = 1; i < squares.length; i++) {
+            int direction = SquareTables.jumpDirection(squares[i - 1], squares[i]);
+            if (direction < 0)
+                return NONE;
+            move = (move == NONE) ? jump(squares[0], direction) : addJump(move, direction);
+        }
+        return move;
+    }
+
+    /**
+     * gets the square the piece starts on
+     * @param move
+     * @return int
+     */
+    public static int getFrom(int move) {
+        return move & FROM_MASK;
+    }
+
+    /**
+     * gets the number of pieces jumped, 0 for a plain move
+     * @param move
+     * @return int
+     */
+    public static int getJumps(int move) {
+        return (move >>> JUMPS_SHIFT) & JUMPS_MASK;
+    }
+
+    /**
+     * checks if the move jumps a piece
+     * @param move
+     * @return boolean
+     */
+    public static boolean isJump(int move) {
+        return getJumps(move) > 0;
+    }
+
+    /**
+     * gets the direction of one step of the move
+     * @param move
+     * @param step
+     * @return int
+     */
+    public static int getDirection(int move, int step) {
+        return (move >>> (PATH_SHIFT + (step << 1))) & 3;
+    }
+
+    /**
+     * gets the square the piece finishes on
+     * @param move
+     * @return int
+     */
+    public static int getTo(int move) {
+        int square = getFrom(move);
+        int jumps = getJumps(move);
+        if (jumps == 0)
+            return SquareTables.neighbor(square, getDirection(move, 0));
+        for (int i = 0; i < jumps; i++)
+            square = SquareTables.jumpLanding(square, getDirection(move, i));
+        return square;
+    }
+
+    /**
+     * gets the mask of the squares holding the pieces that the move jumps
+     * @param move
+     * @return int
+     */
+    public static int getCaptured(int move) {
+        int captured = 0;
+        int square = getFrom(move);
+        for (int i = 0; i < getJumps(move); i++) {
+            int direction = getDirection(move, i);
+            captured |= 1 << SquareTables.neighbor(square, direction);
+            square = SquareTables.jumpLanding(square, direction);
+        }
+        return captured;
+    }
+
+    /**
+     * writes the move the way it is typed in the ui, e.g. 3C-4D or 3C-5E-7C for a double jump
+     * @param move
+     * @return String
+     */
+    public static String toString(int move) {
+        int square = getFrom(move);
+        int jumps = getJumps(move);
+        if (jumps == 0)
+            return squareName(square) + "-" + squareName(getTo(move));
+
+        StringBuilder s = new StringBuilder(squareName(square));
+        for (int i = 0; i < jumps; i++) {
+            square = SquareTables.jumpLanding(square, getDirection(move, i));
+            s.append('-').append(squareName(square));
+        }
+        return s.toString();
+    }
+
+    /**
+     * gets the name of a square, e.g. 3C
+     * @param square
+     * @return String
+     */
+    private static String squareName(int square) {
+        return BitBoard.rowOf(square) + "" + ColumnLabel.valueOf(BitBoard.columnOf(square));
+    }
+}
@@ -0,0 +1,176 @@
+package com.checkersgame.core;
+
+/** Generates the legal moves of a position as packed ints (see Move).  The moves are written into a buffer that
+ * the caller owns and reuses, so generating moves does not create any objects.
+ *
+ * Jump chains of any length are found with a depth first search that keeps the jumped pieces in a local mask
+ * instead of changing the board.  A piece may stop after any jump of a chain, so every part of a chain is a move.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.enums.Color;
+
+public final class MoveGenerator {
+
+    /**
+     * size a move buffer needs to hold every move of a position.  Every prefix of a jump chain is a move, so kings
+     * with many pieces around them have far more moves than men.  A piece has at most 4 plain moves, and its jumps
+     * are paths that never jump the same square twice.  With every square it could jump holding an opponent piece,
+     * a king has at most 51 such paths from the best squares, 45 from the next and 35 from the rest.  Twelve pieces
+     * on the best twelve squares give at most 12 * 4 + 8 * 51 + 4 * 45 = 636 moves.
+     */
+    public static final int MAX_MOVES = 640;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * writes every move a color can make into the buffer
+     * @param position
+     * @param color
+     * @param moves
+     * @return int the number of moves written
+     */
+    public static int generate(BitBoard position, Color color, int[] moves) {
+        int count = 0;
+        int pieces = position.getPieces(color);
+        while (pieces != 0) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            count = generate(position, square, moves, count);
+        }
+        return count;
+    }
+
+    /**
+     * writes the moves of the piece on a square into the buffer starting at an offset
+     * @param position
+     * @param square
+     * @param moves
+     * @param count
+     * @return int the offset after the last move written
+     */
+    public static int generate(BitBoard position, int square, int[] moves, int count) {
+        Color color = position.getColorAt(square);
+        if (color == null)
+            return count;
+
+        int opponent = position.getPieces(color == Color.DARK ? Color.LIGHT : Color.DARK);
+        int empty = position.getEmpty();
+        boolean king = position.isKing(square);
+
+        for (int direction = BitBoard.UP_LEFT; direction <= BitBoard.DOWN_RIGHT; direction++) {
+            if (!king && !BitBoard.isForward(color, direction))
+                continue;
+            int next = SquareTables.neighbor(square, direction);
+            if (next >= 0 && (empty & (1 << next)) != 0)
+                moves[count++] = Move.simple(square, direction);
+        }
+        return addJumps(Move.NONE, square, color, king, opponent, empty | (1 << square), moves, count);
+    }
+
+    /**
+     * writes the jump moves of the piece on a square into the buffer
+     * @param position
+     * @param square
+     * @param moves
+     * @param count
+     * @return int the offset after the last move written
+     */
+    public static int generateJumps(BitBoard position, int square, int[] moves, int count) {
+        Color color = position.getColorAt(square);
+        if (color == null)
+            return count;
+
+        int opponent = position.getPieces(color == Color.DARK ? Color.LIGHT : Color.DARK);
+        return addJumps(Move.NONE, square, color, position.isKing(square), opponent,
+                position.getEmpty() | (1 << square), moves, count);
+    }
+
+    /**
+     * writes every jump move a color can make into the buffer
+     * @param position
+     * @param color
+     * @param moves
+     * @return int the number of moves written
+     */
+    public static int generateJumps(BitBoard position, Color color, int[] moves) {
+        int count = 0;
+        for (int pieces = position.getPieces(color); pieces != 0; pieces &= pieces - 1)
+            count = generateJumps(position, Integer.numberOfTrailingZeros(pieces), moves, count);
+        return count;
+    }
+
+    /**
+     * depth first search for the jumps that can continue a chain.  Jumped pieces are taken out of the opponent
+     * mask for the rest of the chain so they can not be jumped twice.
+     * @param move the chain so far, or Move.NONE before the first jump
+     * @param square the square the chain has reached
+     * @param color
+     * @param king
+     * @param opponent the opponent pieces not jumped yet
+     * @param empty the squares that can be landed on
+     * @param moves
+     * @param count
+     * @return int the offset after the last move written
+     */
+    private static int addJumps(int move, int square, Color color, boolean king, int opponent, int empty,
+                                int[] moves, int count) {
+        if (move != Move.NONE && Move.getJumps(move) == Move.MAX_JUMPS)
+            return count;
+
+        for (int direction = BitBoard.UP_LEFT; direction <= BitBoard.DOWN_RIGHT; direction++) {
+            if (!king && !BitBoard.isForward(color, direction))
+                continue;
+            int jumped = SquareTables.neighbor(square, direction);
+            int landing = SquareTables.jumpLanding(square, direction);
+            if (landing < 0 || (opponent & (1 << jumped)) == 0 || (empty & (1 << landing)) == 0)
+                continue;
+
+            int chain = (move == Move.NONE) ? Move.jump(square, direction) : Move.addJump(move, direction);
+            moves[count++] = chain;
+            count = addJumps(chain, landing, color, king, opponent & ~(1 << jumped), empty, moves, count);
+        }
+        return count;
+    }
+
+    /**
+     * checks if a packed move can be played by the color whose turn it is.  Every step is walked on the masks, so
+     * jump chains of any length are checked without generating anything.
+     * @param position
+     * @param move
+     * @return boolean
+     */
+    public static boolean isLegal(BitBoard position, int move) {
+        int from = Move.getFrom(move);
+        Color color = position.getTurn();
+        if (position.getColorAt(from) != color)
+            return false;
+
+        boolean king = position.isKing(from);
+        int jumps = Move.getJumps(move);
+        int empty = position.getEmpty() | (1 << from);
+
+        if (jumps == 0) {
+            int direction = Move.getDirection(move, 0);
+            int next = SquareTables.neighbor(from, direction);
+            return (king || BitBoard.isForward(color, direction)) && next >= 0 && (empty & (1 << next)) != 0;
+        }
+
+        int opponent = position.getPieces(color == Color.DARK ? Color.LIGHT : Color.DARK);
+        int square = from;
+        for (int i = 0; i < jumps; i++) {
+            int direction = Move.getDirection(move, i);
+            int jumped = SquareTables.neighbor(square, direction);
+            int landing = SquareTables.jumpLanding(square, direction);
+            if ((!king && !BitBoard.isForward(color, direction)) || landing < 0 ||
+                    (opponent & (1 << jumped)) == 0 || (empty & (1 << landing)) == 0)
+                return false;
+            opponent &= ~(1 << jumped);
+            square = landing;
+        }
+        return true;
+    }
+}
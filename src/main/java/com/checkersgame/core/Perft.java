@@ -0,0 +1,207 @@
+package com.checkersgame.core;
+
+/** Counts the positions a number of moves ahead of a position.  The counts for the starting position are known,
+ * so a wrong count means the move generation or make/unmake is broken, and the time it takes measures how fast
+ * they are.
+ *
+ * Positions can be counted on a BitBoard with makeMove/unmakeMove, or on a Board through its pieces and squares
+ * the way a game is played.  Both take every move back, and the Board count checks the hash after each one.
+ *
+ * Deep BitBoard counts can be split over a ForkJoinPool: every move down to a few plies from the leaves becomes a
+ * task with its own copy of the position, and the last plies are counted on the thread that picks the task up.
+ * A PerftCache lets positions reached by different move orders be counted once.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.enums.Color;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class Perft {
+
+    public static final int MAX_DEPTH = 64;
+
+    /**
+     * subtrees this close to the leaves are counted on one thread instead of being split further
+     */
+    private static final int SPLIT_DEPTH = 5;
+
+    private final int[][] moveStack = new int[MAX_DEPTH][MoveGenerator.MAX_MOVES];
+    private final PerftCache cache;
+    private final ThreadLocal<Perft> workers;
+
+    /**
+     * creates a perft that counts every position
+     */
+    public Perft() {
+        this(null);
+    }
+
+    /**
+     * creates a perft that remembers counts in a cache
+     * @param cache the cache, or null to count every position
+     */
+    public Perft(PerftCache cache) {
+        this.cache = cache;
+        this.workers = ThreadLocal.withInitial(() -> new Perft(cache));
+    }
+
+    /**
+     * counts the positions depth moves ahead on a bitboard.  The position is the same when it returns.
+     * @param position
+     * @param depth
+     * @return long
+     */
+    public long count(BitBoard position, int depth) {
+        checkDepth(depth);
+        return countBits(position, depth);
+    }
+
+    /**
+     * counts the positions depth moves ahead on a bitboard, splitting the work over a pool
+     * @param position it is not changed
+     * @param depth
+     * @param pool
+     * @return long
+     */
+    public long count(BitBoard position, int depth, ForkJoinPool pool) {
+        checkDepth(depth);
+        return pool.invoke(new CountTask(position.copy(), depth));
+    }
+
+    /**
+     * counts the positions depth moves ahead on a board, generating the moves piece by piece.  The board is the
+     * same when it returns.
+     * @param board
+     * @param depth
+     * @return long
+     */
+    public long count(Board board, int depth) {
+        checkDepth(depth);
+        return countBoard(board, depth);
+    }
+
+    /**
+     * counts the positions depth moves ahead of each move of a position
+     * @param position
+     * @param depth at least 1
+     * @return Map of packed move to count, in the order the moves are generated
+     */
+    public Map<Integer, Long> divide(BitBoard position, int depth) {
+        checkDepth(depth);
+        if (depth < 1)
+            throw new IllegalArgumentException("divide needs a depth of at least 1");
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generate(position, position.getTurn(), moves);
+        for (int i = 0; i < count; i++) {
+            long hash = position.getHash();
+            int capturedKings = position.makeMove(moves[i]);
+            counts.put(moves[i], countBits(position, depth - 1));
+            position.unmakeMove(moves[i], capturedKings, hash);
+        }
+        return counts;
+    }
+
+    private static void checkDepth(int depth) {
+        if (depth < 0 || depth > MAX_DEPTH)
+            throw new IllegalArgumentException("depth must be between 0 and " + MAX_DEPTH);
+    }
+
+    private long countBits(BitBoard position, int depth) {
+        if (depth == 0)
+            return 1;
+        if (cache != null && depth > 1) {
+            long cached = cache.probe(position.getHash(), depth);
+            if (cached != PerftCache.MISS)
+                return cached;
+        }
+        int[] moves = moveStack[depth - 1];
+        int count = MoveGenerator.generate(position, position.getTurn(), moves);
+        if (depth == 1)
+            return count;
+
+        long total = 0;
+        long hash = position.getHash();
+        for (int i = 0; i < count; i++) {
+            int capturedKings = position.makeMove(moves[i]);
+            total += countBits(position, depth - 1);
+            position.unmakeMove(moves[i], capturedKings, hash);
+        }
+        if (cache != null)
+            cache.store(hash, depth, total);
+        return total;
+    }
+
+    /**
+     * counts one subtree, forking a task for every move until it is close to the leaves
+     */
+    @SuppressWarnings("serial")
+    private class CountTask extends RecursiveTask<Long> {
+        private final BitBoard position;
+        private final int depth;
+
+        CountTask(BitBoard position, int depth) {
+            this.position = position;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SPLIT_DEPTH)
+                return workers.get().countBits(position, depth);
+            if (cache != null) {
+                long cached = cache.probe(position.getHash(), depth);
+                if (cached != PerftCache.MISS)
+                    return cached;
+            }
+
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int count = MoveGenerator.generate(position, position.getTurn(), moves);
+            CountTask[] tasks = new CountTask[count];
+            for (int i = 0; i < count; i++) {
+                BitBoard next = position.copy();
+                next.makeMove(moves[i]);
+                tasks[i] = new CountTask(next, depth - 1);
+                tasks[i].fork();
+            }
+            long total = 0;
+            for (int i = count - 1; i >= 0; i--)
+                total += tasks[i].join();
+            if (cache != null)
+                cache.store(position.getHash(), depth, total);
+            return total;
+        }
+    }
+
+    private long countBoard(Board board, int depth) {
+        if (depth == 0)
+            return 1;
+        BitBoard position = board.getBitBoard();
+        Color turn = position.getTurn();
+        int[] moves = moveStack[depth - 1];
+        int count = 0;
+        for (Piece piece : board.getPieces(turn))
+            count = MoveGenerator.generate(position, piece.getCurrentSquare().getIndex(), moves, count);
+        if (depth == 1)
+            return count;
+
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            long hash = board.getHash();
+            int capturedKings = board.makeMove(moves[i]);
+            board.switchTurn();
+            total += countBoard(board, depth - 1);
+            board.switchTurn();
+            board.unmakeMove(moves[i], capturedKings);
+            if (board.getHash() != hash)
+                throw new IllegalStateException("board does not match the position before " + Move.toString(moves[i]));
+        }
+        return total;
+    }
+}
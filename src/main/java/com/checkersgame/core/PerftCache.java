@@ -0,0 +1,71 @@
+package com.checkersgame.core;
+
+/** Fixed size table of perft counts keyed by position hash and depth, shared by threads without locks.
+ *
+ * Each entry is two longs: the key xor'ed with the count, then the count.  A slot half written by another thread
+ * fails the key check and reads as a miss, the same way the search's transposition table works.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import java.util.Arrays;
+
+public class PerftCache {
+
+    public static final long MISS = -1;
+
+    private static final long DEPTH_MIX = 0x9E3779B97F4A7C15L;
+
+    private final long[] table;
+    private final int mask;
+
+    /**
+     * creates a cache that uses about as much memory as asked for, rounded down to a power of two entries
+     * @param megabytes
+     */
+    public PerftCache(int megabytes) {
+        if (megabytes < 1 || megabytes > 8192)
+            throw new IllegalArgumentException("cache size must be between 1 and 8192 MB");
+        long entries = Math.min(Long.highestOneBit((long) megabytes * 1024 * 1024 / 16), 1 << 30);
+        table = new long[(int) entries * 2];
+        mask = (int) entries - 1;
+    }
+
+    /**
+     * empties the cache
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    /**
+     * looks up the count of a position
+     * @param hash
+     * @param depth
+     * @return long the count, or MISS
+     */
+    public long probe(long hash, int depth) {
+        long key = key(hash, depth);
+        int index = ((int) key & mask) << 1;
+        long count = table[index + 1];
+        return (table[index] ^ count) == key ? count : MISS;
+    }
+
+    /**
+     * stores the count of a position, replacing whatever was in its slot
+     * @param hash
+     * @param depth
+     * @param count
+     */
+    public void store(long hash, int depth, long count) {
+        long key = key(hash, depth);
+        int index = ((int) key & mask) << 1;
+        table[index] = key ^ count;
+        table[index + 1] = count;
+    }
+
+    private static long key(long hash, int depth) {
+        return hash ^ (depth * DEPTH_MIX);
+    }
+}
@@ -10,20 +10,25 @@ package com.checkersgame.core;
 import com.checkersgame.core.enums.Color;
 import com.checkersgame.core.enums.ColumnLabel;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 public class Piece {
     private final Color color;
     private Square currentSquare;
+    private final boolean king;
     private Board board;
-    private List<Coordinate> validMoves = new LinkedList<>();
 
 
     public Piece(Color color, Square square, Board board) {
+        this(color, square, board, false);
+    }
+
+    public Piece(Color color, Square square, Board board, boolean king) {
         this.color = color;
         this.currentSquare = square;
         this.board = board;
+        this.king = king;
     }
 
     /**
@@ -34,6 +39,14 @@ public class Piece {
         return color;
     }
 
+    /**
+     * gets if the piece is a king
+     * @return boolean
+     */
+    public boolean isKing() {
+        return king;
+    }
+
     /**
      * gets the square that the piece is on
      * @return Square
@@ -42,6 +55,14 @@ public class Piece {
         return currentSquare;
     }
 
+    /**
+     * puts the piece back on a square without checking the move, used to undo a move
+     * @param square
+     */
+    void setCurrentSquare(Square square) {
+        this.currentSquare = square;
+    }
+
     /**
      * moves the piece from its current posiiton to the new Coordinate
      * @param coordinate
@@ -58,10 +79,8 @@ public class Piece {
      * @throws Exception
      */
     public void move(Integer row, ColumnLabel col) throws Exception {
-        if (isValid(new Coordinate(col, row))) {
-            this.currentSquare.removePiece();
-            this.currentSquare = board.getSquare(row, col);
-            currentSquare.setPiece(this);
+        if (findMove(BitBoard.squareIndex(row, col), false) != Move.NONE) {
+            relocate(board.getSquare(row, col));
             board.updateBoard();
         }
         else {
@@ -70,27 +89,26 @@ public class Piece {
     }
 
     /**
-     * returns the opponents piece if it was jumped
+     * takes the piece off its square and puts it on another one
+     * @param square
+     */
+    private void relocate(Square square) {
+        this.currentSquare.removePiece();
+        this.currentSquare = square;
+        currentSquare.setPiece(this);
+    }
+
+    /**
+     * returns the opponents piece if it was jumped, the first one for a chain of jumps
      *
      * @param newCord
      * @return Piece
      */
     public Piece getJumpedPiece(Coordinate newCord) {
-        Coordinate oldCoordinate = this.getCurrentSquare().getCoordinate();
-        Integer removalCordRow;
-        ColumnLabel removalCordCol;
-
-        if (newCord.getRow() - oldCoordinate.getRow() > 0)
-            removalCordRow = lookUp();
-        else
-            removalCordRow = lookDown();
-
-        if (newCord.getCol().getValue() - oldCoordinate.getCol().getValue() > 0)
-            removalCordCol = lookRight();
-        else
-            removalCordCol = lookLeft();
-
-        return board.getPieceAt(removalCordRow, removalCordCol);
+        int jump = findMove(BitBoard.squareIndex(newCord), true);
+        if (jump == Move.NONE)
+            return null;
+        return board.getPieceAt(SquareTables.neighbor(Move.getFrom(jump), Move.getDirection(jump, 0)));
     }
 
     /**
@@ -103,29 +121,18 @@ public class Piece {
     }
 
     /**
-     * Jumps over an opponent and removes their piece from the board
+     * Jumps over opponents, as many as the chain to the square takes, and removes their pieces from the board
      * @param row
      * @param col
      * @throws Exception
      */
     public void jump(Integer row, ColumnLabel col) throws Exception{
-        if (isValidJumpMove(new Coordinate(col, row))) {
-            Coordinate oldCoordinate = this.getCurrentSquare().getCoordinate();
-            Integer removalCordRow;
-            ColumnLabel removalCordCol;
-
-            if (row - oldCoordinate.getRow() > 0)
-                removalCordRow = lookUp();
-            else
-                removalCordRow = lookDown();
-
-            if (col.getValue() - oldCoordinate.getCol().getValue() > 0)
-                removalCordCol = lookRight();
-            else
-                removalCordCol = lookLeft();
-
-            this.move(row, col);
-            board.getPieceAt(removalCordRow, removalCordCol).getCurrentSquare().removePiece();
+        int jump = findMove(BitBoard.squareIndex(row, col), true);
+        if (jump != Move.NONE) {
+            relocate(board.getSquare(row, col));
+            for (int captured = Move.getCaptured(jump); captured != 0; captured &= captured - 1)
+                board.getSquare(Integer.numberOfTrailingZeros(captured)).removePiece();
+            board.updateBoard();
         } else {
             throw new Exception();
         }
@@ -138,29 +145,21 @@ public class Piece {
      * @return
      */
     public boolean isValidJumpMove(Coordinate coordinate) {
-        return getValidJumpMoves().contains(coordinate);
+        return findMove(BitBoard.squareIndex(coordinate), true) != Move.NONE;
     }
 
     /**
-     * returns a list of jumpmoves that a piece can make
+     * returns a list of jumpmoves that a piece can make, including where each jump chain can stop
      *
      * @return List of Coordinates
      */
     public List<Coordinate> getValidJumpMoves() {
-        for (Coordinate cord : getValidMoves())
-            if (Math.abs(this.getCurrentSquare().getCoordinate().getRow() - cord.getRow()) < 2)
-                validMoves.remove(cord);
-        return validMoves;
-    }
-
-
-    /**
-     * checks if the new move is valid
-     * @param coordinate
-     * @return Boolean
-     */
-    private boolean isValid(Coordinate coordinate) {
-        return (getValidMoves().contains(coordinate));
+        int[] moves = board.getMoveBuffer();
+        int count = MoveGenerator.generateJumps(board.getBitBoard(), currentSquare.getIndex(), moves, 0);
+        List<Coordinate> jumpMoves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            jumpMoves.add(BitBoard.coordinateOf(Move.getTo(moves[i])));
+        return jumpMoves;
     }
 
     /**
@@ -168,99 +167,32 @@ public class Piece {
      * @return List of Coordinates
      */
     public List<Coordinate> getValidMoves() {
-        validMoves.clear();
-
         if (currentSquare.getColor() != Color.DARK)
             return null;
 
-        if (this.color == Color.DARK) {
-            validMoves.add(new Coordinate(lookLeft(), lookUp()));
-            validMoves.add(new Coordinate(lookRight(), lookUp()));
-        } else {
-            validMoves.add(new Coordinate(lookLeft(), lookDown()));
-            validMoves.add(new Coordinate(lookRight(), lookDown()));
-        }
-
-        filterInvalidMoves();
-        addJumps();
-
+        int[] moves = board.getMoveBuffer();
+        int count = MoveGenerator.generate(board.getBitBoard(), currentSquare.getIndex(), moves, 0);
+        List<Coordinate> validMoves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            validMoves.add(BitBoard.coordinateOf(Move.getTo(moves[i])));
         return validMoves;
     }
 
     /**
-     * removes moves that would be outside the board range or if it is going to land on its own piece
-     */
-    private void filterInvalidMoves() {
-        validMoves.removeIf(cord -> cord.getCol() == null || cord.getRow().compareTo(8) > 0 || cord.getRow().compareTo(1) < 0);
-        validMoves.removeIf(cord -> board.getSquare(cord.getRow(), cord.getCol()).isOccupied() &&
-                board.getSquare(cord.getRow(), cord.getCol()).getCurrentPiece().getColor() == this.color);
-
-    }
-
-    /**
-     * adds the doublejumps that would be possible for a piece
-     */
-    private void addJumps() {
-        validMoves.addAll(jumpMoves());
-        filterInvalidMoves();
-    }
-
-    /**gets the list of doublejumps that would be possible for a piece
-     *
-     * @return List of Coordinates
-     */
-    private List<Coordinate> jumpMoves() {
-        List<Coordinate> dj = new LinkedList<>();
-        List<Coordinate> removalMoves = new LinkedList<>();
-
-        for (Coordinate cord : validMoves) {
-            Square moveSquare = board.getSquare(cord.getRow(), cord.getCol());
-            if (!moveSquare.isOccupied())
-                continue;
-            Piece moveSquarePiece = moveSquare.getCurrentPiece();
-
-            if (moveSquarePiece.color == Color.LIGHT && this.lookLeft() == moveSquare.getCoordinate().getCol()){
-                removalMoves.add(moveSquare.getCoordinate());
-                if (board.getSquare(moveSquarePiece.lookUp(), moveSquarePiece.lookLeft()) != null &&
-                        !board.getSquare(moveSquarePiece.lookUp(), moveSquarePiece.lookLeft()).isOccupied()) {
-                    dj.add(new Coordinate(moveSquarePiece.lookLeft(), moveSquarePiece.lookUp()));
-                }
-            }
-            else if (moveSquarePiece.color == Color.LIGHT && this.lookRight() == moveSquare.getCoordinate().getCol()){
-                removalMoves.add(moveSquare.getCoordinate());
-                if (board.getSquare(moveSquarePiece.lookUp(), moveSquarePiece.lookRight()) != null &&
-                        !board.getSquare(moveSquarePiece.lookUp(), moveSquarePiece.lookRight()).isOccupied()) {
-                    dj.add(new Coordinate(moveSquarePiece.lookRight(), moveSquarePiece.lookUp()));
-                }
-            }
-            else if (moveSquarePiece.color == Color.DARK && this.lookLeft() == moveSquare.getCoordinate().getCol()){
-                removalMoves.add(moveSquare.getCoordinate());
-                if (board.getSquare(moveSquarePiece.lookDown(), moveSquarePiece.lookLeft()) != null &&
-                        !board.getSquare(moveSquarePiece.lookDown(), moveSquarePiece.lookLeft()).isOccupied()) {
-                    dj.add(new Coordinate(moveSquarePiece.lookLeft(), moveSquarePiece.lookDown()));
-                }
-            }
-            else if (moveSquarePiece.color == Color.DARK && this.lookRight() == moveSquare.getCoordinate().getCol()){
-                removalMoves.add(moveSquare.getCoordinate());
-                if (board.getSquare(moveSquarePiece.lookDown(), moveSquarePiece.lookRight()) != null &&
-                        !board.getSquare(moveSquarePiece.lookDown(), moveSquarePiece.lookRight()).isOccupied()) {
-                    dj.add(new Coordinate(moveSquarePiece.lookRight(), moveSquarePiece.lookDown()));
-                }
-            }
-        }
-
-        removeOccupiedSquare(removalMoves);
-        return dj;
-    }
-
-    /**
-     * removes occupied possible moves because of another piece
-     * @param removalMoves
+     * finds the packed move of this piece that lands on a square
+     * @param target
+     * @param jump true for a jump, false for a plain move
+     * @return int the move, or Move.NONE if the piece can not land there
      */
-    private void removeOccupiedSquare(List<Coordinate> removalMoves) {
-        for (Coordinate r : removalMoves) {
-            validMoves.remove(r);
-        }
+    private int findMove(int target, boolean jump) {
+        if (target < 0)
+            return Move.NONE;
+        int[] moves = board.getMoveBuffer();
+        int count = MoveGenerator.generate(board.getBitBoard(), currentSquare.getIndex(), moves, 0);
+        for (int i = 0; i < count; i++)
+            if (Move.getTo(moves[i]) == target && Move.isJump(moves[i]) == jump)
+                return moves[i];
+        return Move.NONE;
     }
 
     /**
@@ -268,39 +200,7 @@ public class Piece {
      * @return Boolean
      */
     public Boolean hasJump() {
-        return getValidJumpMoves().size() > 0;
-    }
-
-    /**
-     * gets the ColumnLabel of the column to the right of the piece
-     * @return ColumnLabel
-     */
-    private ColumnLabel lookRight() {
-        return ColumnLabel.valueOf(currentSquare.getCoordinate().getCol().getValue() + 1);
-    }
-
-    /**
-     * gets the ColumnLabel of the column to the left of the piece
-     * @return ColumnLabel
-     */
-    private ColumnLabel lookLeft() {
-        return ColumnLabel.valueOf(currentSquare.getCoordinate().getCol().getValue() - 1);
-    }
-
-    /**
-     * gets the Row above the piece
-     * @return Integer
-     */
-    private Integer lookUp() {
-        return (currentSquare.getCoordinate().getRow() + 1);
-    }
-
-    /**
-     * gets the Row above the piece
-     * @return Integer
-     */
-    private Integer lookDown() {
-        return (currentSquare.getCoordinate().getRow() - 1);
+        return MoveGenerator.generateJumps(board.getBitBoard(), currentSquare.getIndex(), board.getMoveBuffer(), 0) > 0;
     }
 
     /**
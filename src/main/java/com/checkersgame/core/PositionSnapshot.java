@@ -0,0 +1,138 @@
+package com.checkersgame.core;
+
+/** An immutable copy of a position taken after a move.  CheckersLogic publishes a new snapshot after every ply,
+ * so renderers, spectators and analyzers on other threads can read the position without locking and without
+ * touching the live Square matrix.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.enums.Color;
+import com.checkersgame.core.enums.Player;
+
+public final class PositionSnapshot {
+
+    private final int dark;
+    private final int light;
+    private final int kings;
+    private final Color turn;
+    private final long hash;
+    private final int ply;
+    private final Player winner;
+
+    /**
+     * copies a position
+     * @param position
+     * @param ply number of moves played to reach the position
+     */
+    public PositionSnapshot(BitBoard position, int ply) {
+        this.dark = position.getPieces(Color.DARK);
+        this.light = position.getPieces(Color.LIGHT);
+        this.kings = position.getKings();
+        this.turn = position.getTurn();
+        this.hash = position.getHash();
+        this.ply = ply;
+
+        if (position.count(turn) < 1 || !position.hasMoves(turn))
+            winner = (turn == Color.DARK) ? Player.PlayerO : Player.PlayerX;
+        else
+            winner = null;
+    }
+
+    /**
+     * gets the mask of the pieces of a color
+     * @param color
+     * @return int
+     */
+    public int getPieces(Color color) {
+        return (color == Color.DARK) ? dark : light;
+    }
+
+    /**
+     * gets the mask of the kings of both colors
+     * @return int
+     */
+    public int getKings() {
+        return kings;
+    }
+
+    /**
+     * gets the color of the piece on a square, or null if it is empty
+     * @param square
+     * @return Color
+     */
+    public Color getColorAt(int square) {
+        int bit = 1 << square;
+        if ((dark & bit) != 0) return Color.DARK;
+        if ((light & bit) != 0) return Color.LIGHT;
+        return null;
+    }
+
+    /**
+     * checks if the piece on a square is a king
+     * @param square
+     * @return boolean
+     */
+    public boolean isKing(int square) {
+        return (kings & (1 << square)) != 0;
+    }
+
+    /**
+     * gets the color whose turn it is
+     * @return Color
+     */
+    public Color getTurn() {
+        return turn;
+    }
+
+    /**
+     * gets the Zobrist hash of the position
+     * @return long
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * gets the number of moves played to reach the position
+     * @return int
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * gets the winner if the position ends the game, otherwise null
+     * @return Player
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
+    /**
+     * gets the squares that are different between this snapshot and another one
+     * @param other
+     * @return int mask of bitboard square indexes
+     */
+    public int changedSquares(PositionSnapshot other) {
+        return (dark ^ other.dark) | (light ^ other.light) | (kings ^ other.kings);
+    }
+
+    /**
+     * makes a mutable copy of the position to analyze
+     * @return BitBoard
+     */
+    public BitBoard toBitBoard() {
+        return new BitBoard(dark, light, kings, turn);
+    }
+
+    @Override
+    public String toString() {
+        return "PositionSnapshot{" +
+                "ply=" + ply +
+                ", turn=" + turn +
+                ", hash=" + Long.toHexString(hash) +
+                '}';
+    }
+}
@@ -0,0 +1,271 @@
+package com.checkersgame.core;
+
+/** Plays batches of engine against engine games without a ui.  Every game is its own CheckersLogic with a computer
+ * player on each side, and the games run at the same time on a fixed pool of threads.  Each game makes a new
+ * engine from the factory, seeded with the seed plus the game number, and plays both sides with it, so no game
+ * depends on what another game left in an engine's tables.  The engine should search with one thread, and since
+ * one is made for every game an alpha-beta engine should get a table of TABLE_MB.
+ *
+ * A game starts with a few random moves picked with a Random seeded by the seed plus the game number, so a batch
+ * with a depth limited engine plays the same games each time.  A game that reaches the ply limit is a draw.
+ *
+ * Finished games are written to the output as soon as they end, in the order they finish.  Each record is the
+ * game number (int), the result (byte, DARK_WIN, LIGHT_WIN or DRAW), the number of moves (short) and then the
+ * packed moves (int each), all big-endian.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.engine.SearchEngine;
+import com.checkersgame.core.enums.Color;
+import com.checkersgame.core.enums.Player;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class SelfPlay {
+
+    public static final int DARK_WIN = 0;
+    public static final int LIGHT_WIN = 1;
+    public static final int DRAW = 2;
+
+    /**
+     * size of the transposition table for the alpha-beta engines of batch games, small because every game makes one
+     */
+    public static final int TABLE_MB = 1;
+
+    private final Supplier<SearchEngine> engines;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int randomPlies = 4;
+    private int maxPlies = 200;
+    private long seed = 0;
+
+    private final AtomicInteger[] results = new AtomicInteger[3];
+    private long elapsed = 0;
+
+    /**
+     * creates a batch that plays with engines made by a factory
+     * @param engines makes the engine for each game
+     */
+    public SelfPlay(Supplier<SearchEngine> engines) {
+        this.engines = engines;
+        for (int i = 0; i < results.length; i++)
+            results[i] = new AtomicInteger();
+    }
+
+    /**
+     * sets how many games are played at once
+     * @param threads
+     */
+    public void setThreads(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("need at least one thread");
+        this.threads = threads;
+    }
+
+    /**
+     * gets how many games are played at once
+     * @return int
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * sets how many random moves start each game
+     * @param randomPlies
+     */
+    public void setRandomPlies(int randomPlies) {
+        if (randomPlies < 0)
+            throw new IllegalArgumentException("random plies can not be negative");
+        this.randomPlies = randomPlies;
+    }
+
+    /**
+     * gets how many random moves start each game
+     * @return int
+     */
+    public int getRandomPlies() {
+        return randomPlies;
+    }
+
+    /**
+     * sets how many moves a game may last before it is a draw
+     * @param maxPlies
+     */
+    public void setMaxPlies(int maxPlies) {
+        if (maxPlies < 1)
+            throw new IllegalArgumentException("a game needs at least one ply");
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * gets how many moves a game may last before it is a draw
+     * @return int
+     */
+    public int getMaxPlies() {
+        return maxPlies;
+    }
+
+    /**
+     * sets the seed the random opening moves and the engines are picked with
+     * @param seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * plays a batch of games and writes their records.  The results are added to the ones of earlier batches.
+     * @param games
+     * @param output the record file, it is replaced
+     * @throws IOException if the records can not be written
+     * @throws InterruptedException if the thread is interrupted while the games are played
+     */
+    public void run(int games, Path output) throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "self-play");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            List<Future<?>> running = new ArrayList<>(games);
+            for (int game = 0; game < games; game++) {
+                int number = game;
+                running.add(pool.submit(() -> {
+                    SearchEngine engine = engines.get();
+                    engine.setSeed(seed + number);
+                    int[] moves;
+                    try {
+                        moves = playGame(number, engine);
+                    } finally {
+                        engine.close();
+                    }
+                    synchronized (out) {
+                        writeRecord(out, number, moves);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : running)
+                future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new IllegalStateException("self-play game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            elapsed += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * plays one game with random opening moves and then the engine on both sides
+     * @param number the game number, picks the opening
+     * @param engine
+     * @return int[] the result followed by the moves
+     * @throws Exception if the engine picks a move that is not legal
+     */
+    private int[] playGame(int number, SearchEngine engine) throws Exception {
+        CheckersLogic logic = new CheckersLogic();
+        Random random = new Random(seed + number);
+        for (int ply = 0; ply < randomPlies && logic.getLegalMoveCount() > 0; ply++)
+            logic.makeMove(logic.getLegalMove(random.nextInt(logic.getLegalMoveCount())));
+
+        int result = playGame(logic, logic.createComputerPlayer(Color.DARK, engine),
+                logic.createComputerPlayer(Color.LIGHT, engine), maxPlies);
+        results[result].incrementAndGet();
+
+        int[] history = logic.getMoveHistory();
+        int[] record = new int[history.length + 1];
+        record[0] = result;
+        System.arraycopy(history, 0, record, 1, history.length);
+        return record;
+    }
+
+    /**
+     * lets two computer players finish a game from its current position
+     * @param logic the game, it is played on
+     * @param dark
+     * @param light
+     * @param maxPlies the game is a draw once this many moves have been played in total
+     * @return int DARK_WIN, LIGHT_WIN or DRAW
+     * @throws Exception if a player picks a move that is not legal
+     */
+    public static int playGame(CheckersLogic logic, CheckersComputerPlayer dark, CheckersComputerPlayer light,
+                               int maxPlies) throws Exception {
+        while (!logic.declaredWinner()) {
+            if (logic.getSnapshot().getPly() >= maxPlies)
+                return DRAW;
+            CheckersComputerPlayer player = (logic.getTurnColor() == Color.DARK) ? dark : light;
+            int move = player.chooseMove(logic.getSnapshot().toBitBoard());
+            if (move == Move.NONE)
+                throw new Exception();
+            logic.makeMove(move);
+        }
+        return (logic.getWinner() == Player.PlayerX) ? DARK_WIN : LIGHT_WIN;
+    }
+
+    private static void writeRecord(DataOutputStream out, int number, int[] record) throws IOException {
+        out.writeInt(number);
+        out.writeByte(record[0]);
+        out.writeShort(record.length - 1);
+        for (int i = 1; i < record.length; i++)
+            out.writeInt(record[i]);
+    }
+
+    /**
+     * gets the number of games dark won
+     * @return int
+     */
+    public int getDarkWins() {
+        return results[DARK_WIN].get();
+    }
+
+    /**
+     * gets the number of games light won
+     * @return int
+     */
+    public int getLightWins() {
+        return results[LIGHT_WIN].get();
+    }
+
+    /**
+     * gets the number of games that reached the ply limit
+     * @return int
+     */
+    public int getDraws() {
+        return results[DRAW].get();
+    }
+
+    /**
+     * gets the number of games played
+     * @return int
+     */
+    public int getGames() {
+        return getDarkWins() + getLightWins() + getDraws();
+    }
+
+    /**
+     * gets how many games were played per second of the time spent in run
+     * @return double
+     */
+    public double getGamesPerSecond() {
+        return elapsed == 0 ? 0 : getGames() * 1e9 / elapsed;
+    }
+}
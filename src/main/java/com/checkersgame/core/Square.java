@@ -13,6 +13,7 @@ public class Square {
     private final Coordinate coordinate;
     private final Color color;
     private final Board board;
+    private final int index;
 
     private Piece currentPiece;
     private Boolean occupied = false;
@@ -21,6 +22,7 @@ public class Square {
         this.coordinate = coordinate;
         this.color = color;
         this.board = board;
+        this.index = BitBoard.squareIndex(coordinate);
     }
 
     /**
@@ -28,7 +30,7 @@ public class Square {
      * @param piece
      */
     public void setPiece(Piece piece) {
-        board.setPieceOnBoard(piece);
+        board.setPieceOnBoard(piece, this);
         currentPiece = piece;
         occupied = true;
     }
@@ -37,7 +39,7 @@ public class Square {
      * removes a piece on the square/board
      */
     public void removePiece() {
-        board.removePieceOnBoard(currentPiece);
+        board.removePieceOnBoard(currentPiece, this);
         currentPiece = null;
         occupied = false;
     }
@@ -66,6 +68,14 @@ public class Square {
         return coordinate;
     }
 
+    /**
+     * index of the square in the bitboard, or -1 for a light square
+     * @return int
+     */
+    public int getIndex() {
+        return index;
+    }
+
     /**
      * Color of the square
      * @return
@@ -0,0 +1,75 @@
+package com.checkersgame.core;
+
+/** Lookup tables built once for the 32 dark squares.  For every square and direction they hold the square one
+ * diagonal away and the square a jump in that direction lands on, so finding a neighbor is an array lookup
+ * instead of building Coordinate objects.  A value of -1 means the step leaves the board.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+public final class SquareTables {
+
+    private static final byte[][] NEIGHBOR = new byte[4][BitBoard.SQUARES];
+    private static final byte[][] JUMP = new byte[4][BitBoard.SQUARES];
+
+    static {
+        for (int direction = BitBoard.UP_LEFT; direction <= BitBoard.DOWN_RIGHT; direction++) {
+            for (int square = 0; square < BitBoard.SQUARES; square++) {
+                int next = BitBoard.step(1 << square, direction);
+                int landing = BitBoard.step(next, direction);
+                NEIGHBOR[direction][square] = (byte) (next == 0 ? -1 : Integer.numberOfTrailingZeros(next));
+                JUMP[direction][square] = (byte) (landing == 0 ? -1 : Integer.numberOfTrailingZeros(landing));
+            }
+        }
+    }
+
+    private SquareTables() {
+    }
+
+    /**
+     * gets the square one diagonal away in a direction
+     * @param square
+     * @param direction
+     * @return int the square, or -1 if it is off the board
+     */
+    public static int neighbor(int square, int direction) {
+        return NEIGHBOR[direction][square];
+    }
+
+    /**
+     * gets the square a jump in a direction lands on
+     * @param square
+     * @param direction
+     * @return int the square, or -1 if it is off the board
+     */
+    public static int jumpLanding(int square, int direction) {
+        return JUMP[direction][square];
+    }
+
+    /**
+     * gets the direction of a one square move between two squares
+     * @param from
+     * @param to
+     * @return int the direction, or -1 if the squares are not neighbors
+     */
+    public static int stepDirection(int from, int to) {
+        for (int direction = BitBoard.UP_LEFT; direction <= BitBoard.DOWN_RIGHT; direction++)
+            if (NEIGHBOR[direction][from] == to)
+                return direction;
+        return -1;
+    }
+
+    /**
+     * gets the direction of a jump between two squares
+     * @param from
+     * @param to
+     * @return int the direction, or -1 if a jump from one can not land on the other
+     */
+    public static int jumpDirection(int from, int to) {
+        for (int direction = BitBoard.UP_LEFT; direction <= BitBoard.DOWN_RIGHT; direction++)
+            if (JUMP[direction][from] == to)
+                return direction;
+        return -1;
+    }
+}
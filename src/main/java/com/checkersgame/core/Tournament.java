@@ -0,0 +1,320 @@
+package com.checkersgame.core;
+
+/** Plays every pair of engine configurations against each other to measure how strong they are.  Each pair plays
+ * every opening twice, once with each side, so neither player gets the better side of an opening more often.  The
+ * games run at the same time on a fixed pool of threads, and each side of a game is a CheckersComputerPlayer with
+ * a new engine from its configuration's factory, seeded from the tournament seed and the number of the game so a
+ * run can be played again.  Since two engines are made for every game, an alpha-beta engine should get a table of
+ * SelfPlay.TABLE_MB.  A game that reaches the ply limit is a draw.
+ *
+ * The results give each pairing and each player an Elo difference with a 95% error bar.  One draw is added to
+ * every result before the average score per game and its standard error are worked out, so a player that won
+ * every game still gets a finite difference and an error bar that shrinks as more games are played.  The error
+ * bar is taken in Elo, where a score near 0 or 1 moves the difference the most.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.engine.SearchEngine;
+import com.checkersgame.core.enums.Color;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+public class Tournament {
+
+    private static final double Z_95 = 1.96;
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Supplier<SearchEngine>> engines = new ArrayList<>();
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int maxPlies = 200;
+    private long seed = 0;
+
+    private int[][] wins = new int[0][0];
+    private int[][] draws = new int[0][0];
+    private long elapsed = 0;
+
+    /**
+     * adds a configuration to the tournament
+     * @param name
+     * @param engines makes the engine for each game it plays
+     * @return int the number of the player
+     */
+    public int addPlayer(String name, Supplier<SearchEngine> engines) {
+        names.add(name);
+        this.engines.add(engines);
+        return names.size() - 1;
+    }
+
+    /**
+     * gets the number of players
+     * @return int
+     */
+    public int getPlayers() {
+        return names.size();
+    }
+
+    /**
+     * gets the name of a player
+     * @param player
+     * @return String
+     */
+    public String getName(int player) {
+        return names.get(player);
+    }
+
+    /**
+     * sets how many games are played at once
+     * @param threads
+     */
+    public void setThreads(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("thread count must be positive");
+        this.threads = threads;
+    }
+
+    /**
+     * gets how many games are played at once
+     * @return int
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * sets how many moves a game may last before it is a draw
+     * @param maxPlies
+     */
+    public void setMaxPlies(int maxPlies) {
+        if (maxPlies < 1)
+            throw new IllegalArgumentException("a game needs at least one ply");
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * gets how many moves a game may last before it is a draw
+     * @return int
+     */
+    public int getMaxPlies() {
+        return maxPlies;
+    }
+
+    /**
+     * sets the seed the engines of the games are seeded from
+     * @param seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * plays every pair of players over the openings with the colors swapped.  The results replace the ones of an
+     * earlier run.
+     * @param openings packed moves played from the starting position before the players take over
+     * @throws IllegalArgumentException if an opening has a move that is not legal
+     * @throws InterruptedException if the thread is interrupted while the games are played
+     */
+    public void run(List<int[]> openings) throws InterruptedException {
+        for (int i = 0; i < openings.size(); i++)
+            if (!isLegalOpening(openings.get(i)))
+                throw new IllegalArgumentException("opening " + (i + 1) + " has a move that is not legal");
+
+        int players = names.size();
+        wins = new int[players][players];
+        draws = new int[players][players];
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "tournament");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int a = 0; a < players; a++) {
+                for (int b = a + 1; b < players; b++) {
+                    for (int[] opening : openings) {
+                        int first = a;
+                        int second = b;
+                        int game = running.size();
+                        running.add(pool.submit(() -> playGame(opening, first, second, game)));
+                        running.add(pool.submit(() -> playGame(opening, second, first, game + 1)));
+                    }
+                }
+            }
+            for (Future<?> future : running)
+                future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("tournament game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            elapsed = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * plays one game of an opening
+     * @param opening
+     * @param dark the player with the dark pieces
+     * @param light the player with the light pieces
+     * @param game the number of the game, picks the seeds of the engines
+     * @return Void
+     * @throws Exception if a player picks a move that is not legal
+     */
+    private Void playGame(int[] opening, int dark, int light, int game) throws Exception {
+        CheckersLogic logic = new CheckersLogic();
+        for (int move : opening)
+            logic.makeMove(move);
+
+        SearchEngine darkEngine = engines.get(dark).get();
+        SearchEngine lightEngine = engines.get(light).get();
+        darkEngine.setSeed(seed + 2L * game);
+        lightEngine.setSeed(seed + 2L * game + 1);
+        int result;
+        try {
+            result = SelfPlay.playGame(logic, logic.createComputerPlayer(Color.DARK, darkEngine),
+                    logic.createComputerPlayer(Color.LIGHT, lightEngine), maxPlies);
+        } finally {
+            darkEngine.close();
+            lightEngine.close();
+        }
+        synchronized (this) {
+            if (result == SelfPlay.DARK_WIN)
+                wins[dark][light]++;
+            else if (result == SelfPlay.LIGHT_WIN)
+                wins[light][dark]++;
+            else {
+                draws[dark][light]++;
+                draws[light][dark]++;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isLegalOpening(int[] opening) {
+        BitBoard position = BitBoard.startingPosition();
+        for (int move : opening) {
+            if (!MoveGenerator.isLegal(position, move))
+                return false;
+            position.makeMove(move);
+        }
+        return position.hasMoves(position.getTurn());
+    }
+
+    /**
+     * gets the number of games one player won against another
+     * @param player
+     * @param opponent
+     * @return int
+     */
+    public synchronized int getWins(int player, int opponent) {
+        return wins[player][opponent];
+    }
+
+    /**
+     * gets the number of games two players drew
+     * @param player
+     * @param opponent
+     * @return int
+     */
+    public synchronized int getDraws(int player, int opponent) {
+        return draws[player][opponent];
+    }
+
+    /**
+     * gets the number of games one player lost against another
+     * @param player
+     * @param opponent
+     * @return int
+     */
+    public synchronized int getLosses(int player, int opponent) {
+        return wins[opponent][player];
+    }
+
+    /**
+     * gets how many games were played per second of the last run
+     * @return double
+     */
+    public synchronized double getGamesPerSecond() {
+        int games = 0;
+        for (int a = 0; a < wins.length; a++)
+            for (int b = 0; b < a; b++)
+                games += wins[a][b] + wins[b][a] + draws[a][b];
+        return elapsed == 0 ? 0 : games * 1e9 / elapsed;
+    }
+
+    /**
+     * makes openings by playing random moves from the starting position.  Openings that reach the same position
+     * are only kept once, so fewer than count come back if there are not enough positions that many plies deep.
+     * @param count
+     * @param plies moves in each opening
+     * @param seed
+     * @return List of packed move arrays
+     */
+    public static List<int[]> randomOpenings(int count, int plies, long seed) {
+        Random random = new Random(seed);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        Set<Long> seen = new HashSet<>();
+        List<int[]> openings = new ArrayList<>(count);
+        for (int attempt = 0; attempt < count * 100 && openings.size() < count; attempt++) {
+            BitBoard position = BitBoard.startingPosition();
+            int[] opening = new int[plies];
+            int ply = 0;
+            for (; ply < plies; ply++) {
+                int moveCount = MoveGenerator.generate(position, position.getTurn(), moves);
+                if (moveCount == 0)
+                    break;
+                opening[ply] = moves[random.nextInt(moveCount)];
+                position.makeMove(opening[ply]);
+            }
+            if (ply == plies && position.hasMoves(position.getTurn()) && seen.add(position.getHash()))
+                openings.add(opening);
+        }
+        return openings;
+    }
+
+    /**
+     * gets the Elo difference that makes a player expect an average score per game
+     * @param score between 0 and 1
+     * @return double, infinite for a score of 0 or 1
+     */
+    public static double elo(double score) {
+        if (score <= 0)
+            return Double.NEGATIVE_INFINITY;
+        if (score >= 1)
+            return Double.POSITIVE_INFINITY;
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * gets the Elo difference of a result with its 95% error bar, counting one more draw than was played
+     * @param wins
+     * @param draws
+     * @param losses
+     * @return double[] the difference, then the low and the high end of the error bar
+     */
+    public static double[] eloRange(int wins, int draws, int losses) {
+        if (wins + draws + losses == 0)
+            return new double[]{0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY};
+
+        double games = wins + draws + losses + 1;
+        double score = (wins + 0.5 * (draws + 1)) / games;
+        double variance = (wins * (1 - score) * (1 - score) + (draws + 1) * (0.5 - score) * (0.5 - score) +
+                losses * score * score) / games;
+        // the slope of elo(score), to turn the error of the score into one of the difference
+        double slope = 400 / (Math.log(10) * score * (1 - score));
+        double difference = elo(score);
+        double margin = Z_95 * slope * Math.sqrt(variance / games);
+        return new double[]{difference, difference - margin, difference + margin};
+    }
+}
@@ -0,0 +1,87 @@
+package com.checkersgame.core;
+
+/** Random 64 bit keys used to hash a position.  A position's key is the xor of the key of every piece on its
+ * square, plus the side key when it is light's turn, so a move only has to xor in the few keys it changes.
+ *
+ * The keys come from a fixed seed so the same position hashes the same in every run, which lets hashes be
+ * stored in files.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.enums.Color;
+
+public final class Zobrist {
+
+    private static final long SEED = 0x636865636B657273L;
+
+    private static final long[][] PIECE_KEYS = new long[4][BitBoard.SQUARES];
+    private static final long SIDE_KEY;
+
+    static {
+        long state = SEED;
+        for (long[] keys : PIECE_KEYS) {
+            for (int square = 0; square < keys.length; square++) {
+                state += 0x9E3779B97F4A7C15L;
+                keys[square] = mix(state);
+            }
+        }
+        state += 0x9E3779B97F4A7C15L;
+        SIDE_KEY = mix(state);
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * splitmix64 finalizer, turns a counter into a well spread random value
+     * @param z
+     * @return long
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * gets the key of a piece on a square
+     * @param color
+     * @param king
+     * @param square
+     * @return long
+     */
+    public static long pieceKey(Color color, boolean king, int square) {
+        return PIECE_KEYS[(color == Color.DARK ? 0 : 2) + (king ? 1 : 0)][square];
+    }
+
+    /**
+     * gets the key that is xored in when it is light's turn
+     * @return long
+     */
+    public static long sideKey() {
+        return SIDE_KEY;
+    }
+
+    /**
+     * hashes a whole position from scratch
+     * @param dark
+     * @param light
+     * @param kings
+     * @param turn
+     * @return long
+     */
+    public static long hash(int dark, int light, int kings, Color turn) {
+        long hash = (turn == Color.LIGHT) ? SIDE_KEY : 0L;
+        for (int pieces = dark; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            hash ^= pieceKey(Color.DARK, (kings & (1 << square)) != 0, square);
+        }
+        for (int pieces = light; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            hash ^= pieceKey(Color.LIGHT, (kings & (1 << square)) != 0, square);
+        }
+        return hash;
+    }
+}
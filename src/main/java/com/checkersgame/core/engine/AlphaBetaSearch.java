@@ -0,0 +1,681 @@
+package com.checkersgame.core.engine;
+
+/** Negamax search with alpha-beta pruning.  The search runs on its own copy of the position and walks the tree
+ * with BitBoard.makeMove/unmakeMove, using one move buffer per ply so a search does not create objects.
+ *
+ * The search deepens one move at a time up to the depth limit, trying the best move of the last depth first.  It
+ * stops as soon as it has visited the node limit or used up its time, in which case the best move of the deepest
+ * finished search is returned.  The clock is only read every few thousand nodes so the check costs next to nothing.
+ * Scores are kept in a TranspositionTable so positions reached by different move orders are not searched twice.
+ *
+ * With more than one thread the search runs Lazy SMP: helper searches work on the same position at the same time,
+ * each with its root moves shuffled from the seed, and share the table so the main search finds more of its
+ * positions already scored.  In deterministic mode only the depth limit stops a search and table entries are only
+ * used at exactly the depth they were stored at, so the move and score are the same on every run however the
+ * threads were scheduled.
+ *
+ * Moves are tried best first: the move the table remembers for the position, then jumps with the longest chains
+ * first, then the two killer moves of the ply and then plain moves by their history score.  Killers and history
+ * are kept in int arrays and are only updated by plain moves that caused a cutoff.
+ *
+ * At the depth limit a quiescence search keeps playing jumps until the position is quiet, so a position in the
+ * middle of an exchange is not scored as if the exchange stopped there.  Jumps are not forced in this game, so the
+ * side to move can always stand pat on the static score instead of jumping.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.BitBoard;
+import com.checkersgame.core.Move;
+import com.checkersgame.core.MoveGenerator;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class AlphaBetaSearch implements SearchEngine {
+
+    public static final int WIN_SCORE = 100000;
+    public static final int MAX_DEPTH = 64;
+
+    private static final int INFINITY = WIN_SCORE + 1;
+    private static final int MAX_PLY = MAX_DEPTH + BitBoard.SQUARES;
+    private static final int TIME_CHECK_MASK = 0xFFF;
+
+    private static final int DEFAULT_TABLE_MB = 16;
+
+    private static final int HASH_MOVE_ORDER = 1 << 30;
+    private static final int JUMP_ORDER = 1 << 28;
+    private static final int KILLER_ORDER = 1 << 27;
+    private static final int HISTORY_LIMIT = 1 << 26;
+
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+    private int maxDepth = 8;
+    private long maxNodes = Long.MAX_VALUE;
+    private long timeLimit = 1000;
+    private int threads = 1;
+    private long seed = 0;
+    private boolean deterministic = false;
+
+    private AlphaBetaSearch[] helpers = new AlphaBetaSearch[0];
+    private ExecutorService pool;
+    private volatile boolean stopped;
+    private Random rootShuffle;
+    private int startDepth = 1;
+
+    private final int[][] moveStack = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] orderStack = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[] history = new int[BitBoard.SQUARES * 4];
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private BitBoard position;
+    private long nodes;
+    private long quiescenceNodes;
+    private boolean aborted;
+    private boolean timed;
+    private long deadline;
+    private int score;
+    private int depth;
+    private long totalNodes;
+    private long totalQuiescenceNodes;
+
+    /**
+     * creates a search that scores positions with an evaluator and has a transposition table of its own
+     * @param evaluator
+     */
+    public AlphaBetaSearch(Evaluator evaluator) {
+        this(evaluator, new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    /**
+     * creates a search that scores positions with an evaluator and keeps them in a table that may be shared
+     * @param evaluator
+     * @param table
+     */
+    public AlphaBetaSearch(Evaluator evaluator, TranspositionTable table) {
+        this.evaluator = evaluator;
+        this.table = table;
+    }
+
+    /**
+     * gets the transposition table the search uses
+     * @return TranspositionTable
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * sets how many moves ahead to search
+     * @param maxDepth 1 to MAX_DEPTH
+     */
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH)
+            throw new IllegalArgumentException("depth must be between 1 and " + MAX_DEPTH);
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * gets how many moves ahead the search looks
+     * @return int
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * sets how many positions a search may visit before it stops
+     * @param maxNodes
+     */
+    public void setMaxNodes(long maxNodes) {
+        if (maxNodes < 1)
+            throw new IllegalArgumentException("node limit must be positive");
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * gets how many positions a search may visit
+     * @return long
+     */
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * sets how long a search may take, after which it stops and plays the best move it has found
+     * @param timeLimit milliseconds, or 0 for no limit
+     */
+    public void setTimeLimit(long timeLimit) {
+        if (timeLimit < 0)
+            throw new IllegalArgumentException("time limit can not be negative");
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * gets how long a search may take
+     * @return long milliseconds, 0 for no limit
+     */
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * sets how many threads search at once
+     * @param threads
+     */
+    public void setThreads(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("thread count must be positive");
+        this.threads = threads;
+    }
+
+    /**
+     * gets how many threads search at once
+     * @return int
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * sets the seed the helper threads shuffle their root moves with
+     * @param seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * gets the seed the helper threads shuffle their root moves with
+     * @return long
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * sets if the search has to give the same result on every run.  The time and node limits are ignored while
+     * it is set.
+     * @param deterministic
+     */
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * checks if the search gives the same result on every run
+     * @return boolean
+     */
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    /**
+     * gets the depth of the deepest search the last call finished
+     * @return int
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * gets the number of positions the last search visited, counting every thread
+     * @return long
+     */
+    public long getNodes() {
+        return totalNodes;
+    }
+
+    /**
+     * gets the number of the positions the last search visited that were in the quiescence search, counting
+     * every thread
+     * @return long
+     */
+    public long getQuiescenceNodes() {
+        return totalQuiescenceNodes;
+    }
+
+    /**
+     * gets the number of positions the main thread of the last search cut off early
+     * @return long
+     */
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    /**
+     * gets the share of the cutoffs that came from the first move tried, a measure of how good the ordering is
+     * @return double between 0 and 1
+     */
+    public double getFirstMoveCutoffRate() {
+        return (cutoffs == 0) ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    /**
+     * gets the score of the move the last search returned, from the point of view of the side to move
+     * @return int
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * searches a position and returns the best move for the color whose turn it is
+     * @param root the position, it is not changed
+     * @return int packed move, or Move.NONE if there are no moves
+     */
+    public int search(BitBoard root) {
+        if (threads == 1) {
+            int move = think(root);
+            totalNodes = nodes + quiescenceNodes;
+            totalQuiescenceNodes = quiescenceNodes;
+            return move;
+        }
+
+        startHelpers();
+        Future<?>[] running = new Future<?>[helpers.length];
+        for (int i = 0; i < helpers.length; i++) {
+            AlphaBetaSearch helper = helpers[i];
+            helper.maxDepth = maxDepth;
+            helper.maxNodes = maxNodes;
+            helper.timeLimit = timeLimit;
+            helper.deterministic = deterministic;
+            helper.rootShuffle = new Random(seed + i);
+            helper.startDepth = 1 + (i & 1);
+            helper.stopped = false;
+            BitBoard start = root.copy();
+            running[i] = pool.submit(() -> helper.think(start));
+        }
+
+        int move = think(root);
+        totalNodes = nodes + quiescenceNodes;
+        totalQuiescenceNodes = quiescenceNodes;
+        for (AlphaBetaSearch helper : helpers)
+            helper.stopped = true;
+        for (int i = 0; i < helpers.length; i++) {
+            try {
+                running[i].get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("helper search failed", e.getCause());
+            }
+            totalNodes += helpers[i].nodes + helpers[i].quiescenceNodes;
+            totalQuiescenceNodes += helpers[i].quiescenceNodes;
+        }
+        return move;
+    }
+
+    /**
+     * creates the helper searches and the threads they run on when the thread count changes
+     */
+    private void startHelpers() {
+        if (helpers.length == threads - 1)
+            return;
+        if (pool != null)
+            pool.shutdownNow();
+        helpers = new AlphaBetaSearch[threads - 1];
+        for (int i = 0; i < helpers.length; i++)
+            helpers[i] = new AlphaBetaSearch(evaluator.copy(), table);
+        pool = Executors.newFixedThreadPool(helpers.length, task -> {
+            Thread thread = new Thread(task, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * stops the helper threads.  A later search with more than one thread starts new ones.
+     */
+    @Override
+    public void close() {
+        if (pool != null)
+            pool.shutdownNow();
+        pool = null;
+        helpers = new AlphaBetaSearch[0];
+    }
+
+    /**
+     * runs the iterative deepening search on this thread
+     * @param root
+     * @return int packed move, or Move.NONE if there are no moves
+     */
+    private int think(BitBoard root) {
+        position = root.copy();
+        evaluator.reset(position);
+        nodes = 0;
+        quiescenceNodes = 0;
+        depth = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        for (int[] killer : killers) {
+            killer[0] = Move.NONE;
+            killer[1] = Move.NONE;
+        }
+        for (int i = 0; i < history.length; i++)
+            history[i] >>= 1;
+        aborted = false;
+        timed = timeLimit > 0 && !deterministic;
+        deadline = System.nanoTime() + timeLimit * 1_000_000L;
+
+        int[] moves = moveStack[0];
+        int count = MoveGenerator.generate(position, position.getTurn(), moves);
+        if (count == 0) {
+            score = -WIN_SCORE;
+            return Move.NONE;
+        }
+
+        if (rootShuffle != null) {
+            for (int i = count - 1; i > 0; i--) {
+                int j = rootShuffle.nextInt(i + 1);
+                int move = moves[i];
+                moves[i] = moves[j];
+                moves[j] = move;
+            }
+        } else {
+            orderMoves(moves, count, 0, Move.NONE);
+            for (int i = 0; i < count; i++)
+                nextMove(moves, orderStack[0], i, count);
+        }
+
+        int bestMove = moves[0];
+        score = 0;
+        for (int iteration = startDepth; iteration <= maxDepth && !aborted; iteration++) {
+            int iterationBest = Move.NONE;
+            int alpha = -INFINITY;
+            for (int i = 0; i < count; i++) {
+                int move = moves[i];
+                long hash = position.getHash();
+                int capturedKings = play(move);
+                int value = -negamax(iteration - 1, -INFINITY, -alpha, 1);
+                takeBack(move, capturedKings, hash);
+                if (aborted)
+                    break;
+                if (value > alpha) {
+                    alpha = value;
+                    iterationBest = move;
+                }
+            }
+
+            // the last best move is searched first, so a move that beat it before time ran out is still usable
+            if (iterationBest != Move.NONE) {
+                bestMove = iterationBest;
+                score = alpha;
+                moveToFront(moves, count, bestMove);
+            }
+            if (!aborted)
+                depth = iteration;
+            if (Math.abs(score) >= WIN_SCORE - MAX_PLY)
+                break;
+        }
+        return bestMove;
+    }
+
+    /**
+     * plays a move on the search position and tells the evaluator about it
+     * @param move
+     * @return int mask of the jumped kings, needed to take the move back
+     */
+    private int play(int move) {
+        evaluator.makeMove(position, move);
+        return position.makeMove(move);
+    }
+
+    /**
+     * takes back a move played with play
+     * @param move
+     * @param capturedKings
+     * @param hash the hash before the move was played
+     */
+    private void takeBack(int move, int capturedKings, long hash) {
+        position.unmakeMove(move, capturedKings, hash);
+        evaluator.unmakeMove();
+    }
+
+    /**
+     * moves one move to the front of a buffer, keeping the order of the others
+     * @param moves
+     * @param count
+     * @param move
+     */
+    private static void moveToFront(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return;
+            }
+        }
+    }
+
+    /**
+     * gives every move of a ply an ordering score, higher is tried first
+     * @param moves
+     * @param count
+     * @param ply
+     * @param hashMove best move the table remembers, or Move.NONE
+     */
+    private void orderMoves(int[] moves, int count, int ply, int hashMove) {
+        int[] order = orderStack[ply];
+        int[] killer = killers[ply];
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (move == hashMove)
+                order[i] = HASH_MOVE_ORDER;
+            else if (Move.isJump(move))
+                order[i] = JUMP_ORDER + Move.getJumps(move);
+            else if (move == killer[0])
+                order[i] = KILLER_ORDER + 1;
+            else if (move == killer[1])
+                order[i] = KILLER_ORDER;
+            else
+                order[i] = history[historyIndex(move)];
+        }
+    }
+
+    /**
+     * swaps the best scored of the moves not tried yet into place, a selection sort that stops at a cutoff
+     * @param moves
+     * @param order
+     * @param index
+     * @param count
+     * @return int the move to try next
+     */
+    private static int nextMove(int[] moves, int[] order, int index, int count) {
+        int best = index;
+        for (int i = index + 1; i < count; i++)
+            if (order[i] > order[best])
+                best = i;
+        int move = moves[best];
+        moves[best] = moves[index];
+        moves[index] = move;
+        int value = order[best];
+        order[best] = order[index];
+        order[index] = value;
+        return move;
+    }
+
+    /**
+     * remembers a plain move that caused a cutoff as a killer of the ply and raises its history score
+     * @param move
+     * @param ply
+     * @param depth
+     */
+    private void rememberCutoff(int move, int ply, int depth) {
+        int[] killer = killers[ply];
+        if (killer[0] != move) {
+            killer[1] = killer[0];
+            killer[0] = move;
+        }
+        int index = historyIndex(move);
+        history[index] = Math.min(history[index] + depth * depth, HISTORY_LIMIT);
+    }
+
+    /**
+     * gets the history slot of a plain move, its square and direction
+     * @param move
+     * @return int
+     */
+    private static int historyIndex(int move) {
+        return (Move.getFrom(move) << 2) | Move.getDirection(move, 0);
+    }
+
+    /**
+     * checks if the search has used up its nodes or its time, or has been stopped by the main search
+     * @param visited nodes visited so far, counting the quiescence search
+     * @return boolean
+     */
+    private boolean outOfBudget(long visited) {
+        if (visited >= maxNodes && !deterministic)
+            return true;
+        return (visited & TIME_CHECK_MASK) == 0 && (stopped || (timed && System.nanoTime() - deadline >= 0));
+    }
+
+    /**
+     * negamax with alpha-beta pruning
+     * @param depth moves left to search
+     * @param alpha
+     * @param beta
+     * @param ply distance from the root
+     * @return int score from the point of view of the side to move
+     */
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        // a node at the horizon is counted once, by quiesce
+        if (depth > 0 && outOfBudget(++nodes + quiescenceNodes))
+            aborted = true;
+        if (aborted)
+            return 0;
+
+        long hash = position.getHash();
+        long entry = table.probe(hash);
+        int storedDepth = TranspositionTable.getDepth(entry);
+        if (entry != 0 && (storedDepth == depth || (storedDepth > depth && !deterministic))) {
+            int stored = fromTable(TranspositionTable.getScore(entry), ply);
+            int bound = TranspositionTable.getBound(entry);
+            if (bound == TranspositionTable.EXACT ||
+                    (bound == TranspositionTable.LOWER && stored >= beta) ||
+                    (bound == TranspositionTable.UPPER && stored <= alpha))
+                return stored;
+        }
+
+        if (depth == 0)
+            return quiesce(alpha, beta, ply);
+
+        int[] moves = moveStack[ply];
+        int count = MoveGenerator.generate(position, position.getTurn(), moves);
+        if (count == 0)
+            return -WIN_SCORE + ply;
+
+        int[] order = orderStack[ply];
+        orderMoves(moves, count, ply, (entry != 0) ? TranspositionTable.getMove(entry) : Move.NONE);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = nextMove(moves, order, i, count);
+            int capturedKings = play(move);
+            int value = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            takeBack(move, capturedKings, hash);
+            if (aborted)
+                return 0;
+            if (value > best) {
+                best = value;
+                bestMove = move;
+                if (value > alpha) {
+                    alpha = value;
+                    if (alpha >= beta) {
+                        cutoffs++;
+                        if (i == 0)
+                            firstMoveCutoffs++;
+                        if (!Move.isJump(move))
+                            rememberCutoff(move, ply, depth);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = (best >= beta) ? TranspositionTable.LOWER :
+                (best > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(hash, depth, bound, toTable(best, ply), bestMove);
+        return best;
+    }
+
+    /**
+     * searches only jumps until the position is quiet.  The side to move may stand pat on the static score, so only
+     * jumps that do better than that are looked at.
+     * @param alpha
+     * @param beta
+     * @param ply distance from the root
+     * @return int score from the point of view of the side to move
+     */
+    private int quiesce(int alpha, int beta, int ply) {
+        if (outOfBudget(nodes + ++quiescenceNodes))
+            aborted = true;
+        if (aborted)
+            return 0;
+
+        if (!position.hasMoves(position.getTurn()))
+            return -WIN_SCORE + ply;
+        int best = evaluator.evaluate(position);
+        if (best >= beta || ply == MAX_PLY - 1)
+            return best;
+        if (best > alpha)
+            alpha = best;
+
+        int[] moves = moveStack[ply];
+        int[] order = orderStack[ply];
+        int count = MoveGenerator.generateJumps(position, position.getTurn(), moves);
+        for (int i = 0; i < count; i++)
+            order[i] = Move.getJumps(moves[i]);
+
+        long hash = position.getHash();
+        for (int i = 0; i < count; i++) {
+            int move = nextMove(moves, order, i, count);
+            int capturedKings = play(move);
+            int value = -quiesce(-beta, -alpha, ply + 1);
+            takeBack(move, capturedKings, hash);
+            if (aborted)
+                return 0;
+            if (value > best) {
+                best = value;
+                if (value > alpha) {
+                    alpha = value;
+                    if (alpha >= beta)
+                        break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * win scores count plies from the root, so they are stored counting from the position instead
+     * @param score
+     * @param ply
+     * @return int
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= WIN_SCORE - MAX_PLY) return score + ply;
+        if (score <= -WIN_SCORE + MAX_PLY) return score - ply;
+        return score;
+    }
+
+    /**
+     * turns a stored score back into one counted from the root
+     * @param score
+     * @param ply
+     * @return int
+     */
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN_SCORE - MAX_PLY) return score - ply;
+        if (score <= -WIN_SCORE + MAX_PLY) return score + ply;
+        return score;
+    }
+}
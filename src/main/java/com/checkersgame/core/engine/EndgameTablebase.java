@@ -0,0 +1,246 @@
+package com.checkersgame.core.engine;
+
+/** Win/loss tables for endgames with few men, read from memory mapped files.
+ *
+ * Positions are split into slices by how many dark and light men they have, one file per slice.  Within a slice
+ * every placement of the men has its own index: the dark squares are ranked as a combination of the 32 squares,
+ * the light squares as a combination of the squares left over, and the index is
+ * (darkRank * C(32 - dark, light) + lightRank) * 2 plus 1 if light is to move.  No index is wasted, and each
+ * position takes two bits holding its value for the side to move.
+ *
+ * Positions with kings are not in the tables.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.BitBoard;
+import com.checkersgame.core.Move;
+import com.checkersgame.core.MoveGenerator;
+import com.checkersgame.core.enums.Color;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class EndgameTablebase {
+
+    public static final int UNKNOWN = 0;
+    public static final int LOSS = 1;
+    public static final int WIN = 2;
+    public static final int DRAW = 3;
+
+    /**
+     * most men a color can have
+     */
+    public static final int MAX_MEN = 12;
+
+    private static final long[][] CHOOSE = new long[BitBoard.SQUARES + 1][MAX_MEN + 1];
+
+    static {
+        for (int n = 0; n <= BitBoard.SQUARES; n++) {
+            CHOOSE[n][0] = 1;
+            for (int k = 1; k <= MAX_MEN && k <= n; k++)
+                CHOOSE[n][k] = CHOOSE[n - 1][k - 1] + (k <= n - 1 ? CHOOSE[n - 1][k] : 0);
+        }
+    }
+
+    private final ByteBuffer[][] slices = new ByteBuffer[MAX_MEN + 1][MAX_MEN + 1];
+    private int maxPieces;
+
+    private EndgameTablebase() {
+    }
+
+    /**
+     * maps every slice file found in a directory
+     * @param directory
+     * @return EndgameTablebase
+     * @throws IOException
+     */
+    public static EndgameTablebase open(Path directory) throws IOException {
+        EndgameTablebase tablebase = new EndgameTablebase();
+        for (int dark = 0; dark <= MAX_MEN; dark++) {
+            for (int light = 0; light <= MAX_MEN; light++) {
+                Path file = directory.resolve(fileName(dark, light));
+                if (!Files.isRegularFile(file) || Files.size(file) != fileBytes(dark, light))
+                    continue;
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    tablebase.slices[dark][light] = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+                tablebase.maxPieces = Math.max(tablebase.maxPieces, dark + light);
+            }
+        }
+        return tablebase;
+    }
+
+    /**
+     * gets the most men of any slice that was found
+     * @return int
+     */
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * checks if the slice for a number of dark and light men was found
+     * @param dark
+     * @param light
+     * @return boolean
+     */
+    public boolean hasSlice(int dark, int light) {
+        return dark <= MAX_MEN && light <= MAX_MEN && slices[dark][light] != null;
+    }
+
+    /**
+     * looks up the value of a position for the side to move
+     * @param position
+     * @return int WIN, LOSS, DRAW, or UNKNOWN if the position is not in the tables
+     */
+    public int probe(BitBoard position) {
+        int dark = position.getPieces(Color.DARK);
+        int light = position.getPieces(Color.LIGHT);
+        int darkCount = Integer.bitCount(dark);
+        int lightCount = Integer.bitCount(light);
+        if (position.getKings() != 0 || !hasSlice(darkCount, lightCount))
+            return UNKNOWN;
+        return valueAt(slices[darkCount][lightCount], index(dark, light, position.getTurn()));
+    }
+
+    /**
+     * picks a move that keeps a won position won.  The game can not repeat a position without kings, so playing
+     * such moves always ends in a win.
+     * @param position
+     * @return int packed move, or Move.NONE if the position is not a known win
+     */
+    public int winningMove(BitBoard position) {
+        if (probe(position) != WIN)
+            return Move.NONE;
+        BitBoard next = position.copy();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generate(next, next.getTurn(), moves);
+        long hash = next.getHash();
+        for (int i = 0; i < count; i++) {
+            int capturedKings = next.makeMove(moves[i]);
+            int reply = probe(next);
+            next.unmakeMove(moves[i], capturedKings, hash);
+            if (reply == LOSS)
+                return moves[i];
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * gets the name of the file of a slice
+     * @param dark
+     * @param light
+     * @return String
+     */
+    public static String fileName(int dark, int light) {
+        return "db-" + dark + "-" + light + ".bin";
+    }
+
+    /**
+     * gets the number of positions in a slice, both sides to move
+     * @param dark
+     * @param light
+     * @return long
+     */
+    public static long positions(int dark, int light) {
+        return CHOOSE[BitBoard.SQUARES][dark] * CHOOSE[BitBoard.SQUARES - dark][light] * 2;
+    }
+
+    /**
+     * gets the size of the file of a slice, four positions to a byte
+     * @param dark
+     * @param light
+     * @return long
+     */
+    public static long fileBytes(int dark, int light) {
+        return (positions(dark, light) + 3) / 4;
+    }
+
+    /**
+     * gets the index of a position in its slice
+     * @param dark
+     * @param light
+     * @param turn
+     * @return long
+     */
+    public static long index(int dark, int light, Color turn) {
+        long darkRank = 0;
+        int k = 1;
+        for (int pieces = dark; pieces != 0; pieces &= pieces - 1)
+            darkRank += CHOOSE[Integer.numberOfTrailingZeros(pieces)][k++];
+
+        long lightRank = 0;
+        k = 1;
+        for (int pieces = light; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            int free = square - Integer.bitCount(dark & ((1 << square) - 1));
+            lightRank += CHOOSE[free][k++];
+        }
+
+        long placement = darkRank * CHOOSE[BitBoard.SQUARES - Integer.bitCount(dark)][Integer.bitCount(light)] +
+                lightRank;
+        return placement * 2 + (turn == Color.LIGHT ? 1 : 0);
+    }
+
+    /**
+     * builds the position at an index of a slice
+     * @param index
+     * @param darkCount
+     * @param lightCount
+     * @return BitBoard
+     */
+    public static BitBoard position(long index, int darkCount, int lightCount) {
+        Color turn = ((index & 1) == 0) ? Color.DARK : Color.LIGHT;
+        long placement = index >>> 1;
+        long lightCombinations = CHOOSE[BitBoard.SQUARES - darkCount][lightCount];
+        int dark = unrank(placement / lightCombinations, darkCount);
+        int free = unrank(placement % lightCombinations, lightCount);
+
+        // the light ranks count only the squares dark does not hold, so spread them back over the board
+        int light = 0;
+        int slot = 0;
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            if ((dark & (1 << square)) != 0)
+                continue;
+            if ((free & (1 << slot)) != 0)
+                light |= 1 << square;
+            slot++;
+        }
+        return new BitBoard(dark, light, 0, turn);
+    }
+
+    /**
+     * turns the rank of a combination back into a mask of k bits
+     * @param rank
+     * @param k
+     * @return int
+     */
+    private static int unrank(long rank, int k) {
+        int mask = 0;
+        int n = BitBoard.SQUARES - 1;
+        for (; k > 0; k--) {
+            while (CHOOSE[n][k] > rank)
+                n--;
+            rank -= CHOOSE[n][k];
+            mask |= 1 << n;
+            n--;
+        }
+        return mask;
+    }
+
+    /**
+     * reads the two bit value of an index from a packed buffer
+     * @param buffer
+     * @param index
+     * @return int
+     */
+    static int valueAt(ByteBuffer buffer, long index) {
+        return (buffer.get((int) (index >>> 2)) >>> ((int) (index & 3) << 1)) & 3;
+    }
+}
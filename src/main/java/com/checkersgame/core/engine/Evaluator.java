@@ -0,0 +1,52 @@
+package com.checkersgame.core.engine;
+
+/** Scores a position for the search.  Implementations can be swapped to change how the computer plays.
+ *
+ * An evaluator that keeps running totals is told about every move the search makes and takes back, so it can
+ * update them instead of looking at every piece again when a position is scored.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.BitBoard;
+
+public interface Evaluator {
+
+    /**
+     * scores a position from the point of view of the color whose turn it is.  Positive is good for that color.
+     * @param position
+     * @return int
+     */
+    int evaluate(BitBoard position);
+
+    /**
+     * called before a search starts from a position
+     * @param position
+     */
+    default void reset(BitBoard position) {
+    }
+
+    /**
+     * called just before the search plays a move on the position
+     * @param position the position before the move
+     * @param move
+     */
+    default void makeMove(BitBoard position, int move) {
+    }
+
+    /**
+     * called after the search takes back the last move it played
+     */
+    default void unmakeMove() {
+    }
+
+    /**
+     * gets an evaluator with the same settings for another search thread.  Evaluators without running totals can
+     * be shared.
+     * @return Evaluator
+     */
+    default Evaluator copy() {
+        return this;
+    }
+}
@@ -0,0 +1,238 @@
+package com.checkersgame.core.engine;
+
+/** Evaluator that scores material, advancement, guarding the back rank, center control and mobility.
+ *
+ * Everything but mobility depends on one piece at a time, so it is folded into one table per color holding what a
+ * man or king is worth on each square.  The totals for both colors are updated as the search makes and takes back
+ * moves, which only touches the moving piece and the pieces it jumps, and mobility is counted with a few shifts of
+ * the occupancy masks.  Scoring a position does not depend on how many pieces are on the board.
+ *
+ * The weights are read from a properties file with the keys man, king, advancement, backRank, center and
+ * mobility.  Keys that are missing keep their default value.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.BitBoard;
+import com.checkersgame.core.Move;
+import com.checkersgame.core.enums.Color;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+public class IncrementalEvaluator implements Evaluator {
+
+    /**
+     * system property holding the path of a weights file for loadDefault
+     */
+    public static final String WEIGHTS_PROPERTY = "checkers.weights";
+
+    private static final int CENTER = centerMask();
+    private static final int MAX_MOVES_PLAYED = 256;
+
+    private final Properties weights;
+    private final int mobility;
+    private final int[][][] values = new int[2][2][BitBoard.SQUARES];
+
+    private int dark;
+    private int light;
+    private final int[] darkStack = new int[MAX_MOVES_PLAYED];
+    private final int[] lightStack = new int[MAX_MOVES_PLAYED];
+    private int top;
+
+    /**
+     * creates an evaluator with the default weights
+     */
+    public IncrementalEvaluator() {
+        this(new Properties());
+    }
+
+    /**
+     * creates an evaluator with weights from properties, keys that are missing keep their default
+     * @param weights
+     */
+    public IncrementalEvaluator(Properties weights) {
+        this.weights = weights;
+        int man = weight("man", 100);
+        int king = weight("king", 130);
+        int advancement = weight("advancement", 3);
+        int backRank = weight("backRank", 8);
+        int center = weight("center", 4);
+        mobility = weight("mobility", 2);
+
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            int row = BitBoard.rowOf(square);
+            int centerBonus = ((CENTER & (1 << square)) != 0) ? center : 0;
+            int manValue = man + advancement * (row - 1) + (row == 1 ? backRank : 0) + centerBonus;
+            int kingValue = king + centerBonus;
+
+            // light is dark turned around, square 31 - n is square n seen from the other side
+            values[index(Color.DARK)][0][square] = manValue;
+            values[index(Color.DARK)][1][square] = kingValue;
+            values[index(Color.LIGHT)][0][BitBoard.SQUARES - 1 - square] = manValue;
+            values[index(Color.LIGHT)][1][BitBoard.SQUARES - 1 - square] = kingValue;
+        }
+    }
+
+    /**
+     * creates an evaluator with weights from a properties file
+     * @param path
+     * @return IncrementalEvaluator
+     * @throws IOException
+     */
+    public static IncrementalEvaluator load(Path path) throws IOException {
+        Properties weights = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            weights.load(in);
+        }
+        return new IncrementalEvaluator(weights);
+    }
+
+    /**
+     * creates an evaluator with weights from the file named by the checkers.weights system property, or the
+     * default weights if it is not set
+     * @return IncrementalEvaluator
+     * @throws IOException
+     */
+    public static IncrementalEvaluator loadDefault() throws IOException {
+        String path = System.getProperty(WEIGHTS_PROPERTY);
+        return (path == null) ? new IncrementalEvaluator() : load(Path.of(path));
+    }
+
+    /**
+     * reads one weight
+     * @param key
+     * @param defaultValue
+     * @return int
+     */
+    private int weight(String key, int defaultValue) {
+        String value = weights.getProperty(key);
+        if (value == null)
+            return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("weight " + key + " is not a whole number: " + value);
+        }
+    }
+
+    /**
+     * gets the mask of the squares in rows 3 to 6 and columns C to F
+     * @return int
+     */
+    private static int centerMask() {
+        int mask = 0;
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            int row = BitBoard.rowOf(square);
+            int col = BitBoard.columnOf(square);
+            if (row >= 3 && row <= 6 && col >= 2 && col <= 5)
+                mask |= 1 << square;
+        }
+        return mask;
+    }
+
+    private static int index(Color color) {
+        return (color == Color.DARK) ? 0 : 1;
+    }
+
+    /**
+     * gets what a piece is worth on a square
+     * @param color
+     * @param king
+     * @param square
+     * @return int
+     */
+    private int value(Color color, boolean king, int square) {
+        return values[index(color)][king ? 1 : 0][square];
+    }
+
+    /**
+     * adds up the pieces of a color one at a time
+     * @param position
+     * @param color
+     * @return int
+     */
+    private int total(BitBoard position, Color color) {
+        int sum = 0;
+        for (int pieces = position.getPieces(color); pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            sum += value(color, position.isKing(square), square);
+        }
+        return sum;
+    }
+
+    /**
+     * counts the plain moves a color has with shifts of the masks.  A square two pieces can move to counts once for
+     * each of them, since each is a move.
+     * @param position
+     * @param color
+     * @return int
+     */
+    private static int mobility(BitBoard position, Color color) {
+        int own = position.getPieces(color);
+        int empty = position.getEmpty();
+        int count = 0;
+        for (int direction = BitBoard.UP_LEFT; direction <= BitBoard.DOWN_RIGHT; direction++) {
+            int movers = BitBoard.isForward(color, direction) ? own : own & position.getKings();
+            count += Integer.bitCount(BitBoard.step(movers, direction) & empty);
+        }
+        return count;
+    }
+
+    @Override
+    public int evaluate(BitBoard position) {
+        int score = dark - light +
+                mobility * (mobility(position, Color.DARK) - mobility(position, Color.LIGHT));
+        return (position.getTurn() == Color.DARK) ? score : -score;
+    }
+
+    @Override
+    public void reset(BitBoard position) {
+        dark = total(position, Color.DARK);
+        light = total(position, Color.LIGHT);
+        top = 0;
+    }
+
+    @Override
+    public void makeMove(BitBoard position, int move) {
+        darkStack[top] = dark;
+        lightStack[top] = light;
+        top++;
+
+        int from = Move.getFrom(move);
+        Color color = position.getColorAt(from);
+        boolean king = position.isKing(from);
+        int gained = value(color, king, Move.getTo(move)) - value(color, king, from);
+
+        Color opponent = (color == Color.DARK) ? Color.LIGHT : Color.DARK;
+        int lost = 0;
+        for (int captured = Move.getCaptured(move); captured != 0; captured &= captured - 1) {
+            int square = Integer.numberOfTrailingZeros(captured);
+            lost += value(opponent, position.isKing(square), square);
+        }
+
+        if (color == Color.DARK) {
+            dark += gained;
+            light -= lost;
+        } else {
+            light += gained;
+            dark -= lost;
+        }
+    }
+
+    @Override
+    public void unmakeMove() {
+        top--;
+        dark = darkStack[top];
+        light = lightStack[top];
+    }
+
+    @Override
+    public Evaluator copy() {
+        return new IncrementalEvaluator(weights);
+    }
+}
@@ -0,0 +1,35 @@
+package com.checkersgame.core.engine;
+
+/** Evaluator that only counts pieces, kings being worth a bit more than men.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.BitBoard;
+import com.checkersgame.core.enums.Color;
+
+public class MaterialEvaluator implements Evaluator {
+
+    private static final int MAN_VALUE = 100;
+    private static final int KING_VALUE = 130;
+
+    @Override
+    public int evaluate(BitBoard position) {
+        Color turn = position.getTurn();
+        Color opponent = (turn == Color.DARK) ? Color.LIGHT : Color.DARK;
+        return material(position, turn) - material(position, opponent);
+    }
+
+    /**
+     * gets the value of the pieces of a color
+     * @param position
+     * @param color
+     * @return int
+     */
+    private int material(BitBoard position, Color color) {
+        int pieces = position.getPieces(color);
+        int kings = Integer.bitCount(pieces & position.getKings());
+        return (Integer.bitCount(pieces) - kings) * MAN_VALUE + kings * KING_VALUE;
+    }
+}
@@ -0,0 +1,425 @@
+package com.checkersgame.core.engine;
+
+/** Monte Carlo tree search.  Moves are picked by playing many random games from the position: the tree grows
+ * toward the moves that win most often, chosen with the UCT formula, and the move played is the one tried most.
+ *
+ * The tree is kept in int arrays of a fixed size, so a search does not create objects per node.  Several workers
+ * share the tree and only hold its lock to walk down and to add up a result; the playouts themselves run on each
+ * worker's own BitBoard at the same time.  A worker walking down counts a visit on every node it passes before its
+ * playout is finished, a virtual loss that steers the other workers to different parts of the tree.  Playouts pick
+ * a random jump when there is one and a random move otherwise, using the worker's own move buffer and random state.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.BitBoard;
+import com.checkersgame.core.Move;
+import com.checkersgame.core.MoveGenerator;
+import com.checkersgame.core.enums.Color;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MonteCarloSearch implements SearchEngine {
+
+    private static final int MAX_PLAYOUT_PLIES = 200;
+    private static final int MAX_TREE_PLIES = 300;
+    private static final int NOT_EXPANDED = -1;
+    private static final long UNTIMED_PLAYOUTS = 20_000;
+
+    private int threads = 1;
+    private long timeLimit = 1000;
+    private long maxPlayouts = Long.MAX_VALUE;
+    private double exploration = 1.4;
+    private long seed = System.nanoTime();
+
+    private final Object treeLock = new Object();
+    private int[] moves;
+    private int[] firstChild;
+    private int[] childCount;
+    private int[] visits;
+    private int[] wins;
+    private int size;
+
+    private Worker[] workers = new Worker[0];
+    private ExecutorService pool;
+    private volatile boolean stopped;
+    private boolean timed;
+    private long deadline;
+    private long playoutLimit;
+    private final AtomicLong playouts = new AtomicLong();
+    private Color rootTurn;
+    private final int[] rootMoves = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * creates a search with room for about a million tree nodes
+     */
+    public MonteCarloSearch() {
+        setTreeSize(1 << 20);
+    }
+
+    /**
+     * sets how many nodes the tree can hold.  Once it is full the search keeps playing out from the leaves.
+     * @param treeSize
+     */
+    public void setTreeSize(int treeSize) {
+        if (treeSize < MoveGenerator.MAX_MOVES + 1)
+            throw new IllegalArgumentException("tree must hold at least " + (MoveGenerator.MAX_MOVES + 1) + " nodes");
+        moves = new int[treeSize];
+        firstChild = new int[treeSize];
+        childCount = new int[treeSize];
+        visits = new int[treeSize];
+        wins = new int[treeSize];
+    }
+
+    /**
+     * gets how many nodes the tree can hold
+     * @return int
+     */
+    public int getTreeSize() {
+        return moves.length;
+    }
+
+    @Override
+    public void setThreads(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("thread count must be positive");
+        this.threads = threads;
+    }
+
+    @Override
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * sets how long a search may take.  With no limit and no playout limit set, a search stops after
+     * UNTIMED_PLAYOUTS playouts.
+     * @param timeLimit milliseconds, or 0 for no limit
+     */
+    @Override
+    public void setTimeLimit(long timeLimit) {
+        if (timeLimit < 0)
+            throw new IllegalArgumentException("time limit can not be negative");
+        this.timeLimit = timeLimit;
+    }
+
+    @Override
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * sets how many games a search may play out before it stops
+     * @param maxPlayouts
+     */
+    public void setMaxPlayouts(long maxPlayouts) {
+        if (maxPlayouts < 1)
+            throw new IllegalArgumentException("playout limit must be positive");
+        this.maxPlayouts = maxPlayouts;
+    }
+
+    /**
+     * gets how many games a search may play out
+     * @return long
+     */
+    public long getMaxPlayouts() {
+        return maxPlayouts;
+    }
+
+    /**
+     * sets how much the search favors moves it has tried less over moves that have won more
+     * @param exploration
+     */
+    public void setExploration(double exploration) {
+        if (exploration < 0)
+            throw new IllegalArgumentException("exploration can not be negative");
+        this.exploration = exploration;
+    }
+
+    /**
+     * gets how much the search favors moves it has tried less
+     * @return double
+     */
+    public double getExploration() {
+        return exploration;
+    }
+
+    /**
+     * sets the seed the workers pick their random moves with
+     * @param seed
+     */
+    @Override
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * gets the number of games the last search played out
+     * @return long
+     */
+    public long getPlayouts() {
+        return playouts.get();
+    }
+
+    /**
+     * gets the number of tree nodes the last search created
+     * @return long
+     */
+    @Override
+    public long getNodes() {
+        return size;
+    }
+
+    @Override
+    public int search(BitBoard root) {
+        int count = MoveGenerator.generate(root, root.getTurn(), rootMoves);
+        if (count == 0)
+            return Move.NONE;
+
+        size = 1;
+        childCount[0] = NOT_EXPANDED;
+        visits[0] = 0;
+        playouts.set(0);
+        rootTurn = root.getTurn();
+        stopped = false;
+        timed = timeLimit > 0;
+        deadline = System.nanoTime() + timeLimit * 1_000_000L;
+        playoutLimit = (timed || maxPlayouts != Long.MAX_VALUE) ? maxPlayouts : UNTIMED_PLAYOUTS;
+        if (count == 1)
+            return rootMoves[0];
+
+        startWorkers();
+        Future<?>[] running = new Future<?>[workers.length - 1];
+        for (int i = 1; i < workers.length; i++) {
+            Worker worker = workers[i];
+            BitBoard start = root.copy();
+            long workerSeed = seed + i;
+            running[i - 1] = pool.submit(() -> worker.run(start, workerSeed));
+        }
+        workers[0].run(root.copy(), seed);
+        stopped = true;
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("playout worker failed", e.getCause());
+            }
+        }
+
+        // time can run out before the root is expanded, then its children are left from an earlier search
+        if (childCount[0] <= 0)
+            return rootMoves[0];
+        int best = firstChild[0];
+        for (int child = firstChild[0]; child < firstChild[0] + childCount[0]; child++)
+            if (visits[child] > visits[best])
+                best = child;
+        return moves[best];
+    }
+
+    /**
+     * creates the workers and the threads they run on when the thread count changes
+     */
+    private void startWorkers() {
+        if (workers.length == threads)
+            return;
+        if (pool != null)
+            pool.shutdownNow();
+        workers = new Worker[threads];
+        for (int i = 0; i < threads; i++)
+            workers[i] = new Worker();
+        pool = (threads == 1) ? null : Executors.newFixedThreadPool(threads - 1, task -> {
+            Thread thread = new Thread(task, "playout-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * stops the worker threads.  A later search with more than one thread starts new ones.
+     */
+    @Override
+    public void close() {
+        if (pool != null)
+            pool.shutdownNow();
+        pool = null;
+        workers = new Worker[0];
+    }
+
+    /**
+     * checks if the search has used up its playouts or its time
+     * @return boolean
+     */
+    private boolean finished() {
+        if (stopped)
+            return true;
+        if (playouts.get() >= playoutLimit || (timed && System.nanoTime() - deadline >= 0)) {
+            stopped = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * picks the child to walk down to with the UCT formula.  A child nobody has visited is picked first.
+     * @param node
+     * @return int
+     */
+    private int select(int node) {
+        double logVisits = Math.log(visits[node]);
+        int best = NOT_EXPANDED;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+            if (visits[child] == 0)
+                return child;
+            double value = wins[child] / (2.0 * visits[child]) +
+                    exploration * Math.sqrt(logVisits / visits[child]);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * adds the moves of a position as children of a node, unless the tree is full
+     * @param node
+     * @param buffer moves of the position
+     * @param count
+     */
+    private void expand(int node, int[] buffer, int count) {
+        if (size + count > moves.length)
+            return;
+        firstChild[node] = size;
+        childCount[node] = count;
+        for (int i = 0; i < count; i++) {
+            moves[size] = buffer[i];
+            childCount[size] = NOT_EXPANDED;
+            visits[size] = 0;
+            wins[size] = 0;
+            size++;
+        }
+    }
+
+    /**
+     * one thread's share of the search, with its own position and buffers
+     */
+    private class Worker {
+        private final int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        private final int[] path = new int[MAX_TREE_PLIES];
+        private final int[] played = new int[MAX_TREE_PLIES + MAX_PLAYOUT_PLIES];
+        private final int[] capturedKings = new int[MAX_TREE_PLIES + MAX_PLAYOUT_PLIES];
+        private final long[] hashes = new long[MAX_TREE_PLIES + MAX_PLAYOUT_PLIES];
+        private BitBoard position;
+        private int plies;
+        private long random;
+
+        /**
+         * runs iterations until the search is out of time or playouts
+         * @param root
+         * @param seed
+         */
+        void run(BitBoard root, long seed) {
+            position = root;
+            random = seed | 1;
+            while (!finished())
+                iterate();
+        }
+
+        /**
+         * walks down the tree, plays a game out from the leaf and adds the result to every node on the way
+         */
+        private void iterate() {
+            int length = 0;
+            boolean terminal;
+            synchronized (treeLock) {
+                int node = 0;
+                visits[0]++;
+                while (true) {
+                    if (childCount[node] == NOT_EXPANDED && plies < MAX_TREE_PLIES)
+                        expand(node, buffer, MoveGenerator.generate(position, position.getTurn(), buffer));
+                    if (childCount[node] <= 0 || length == MAX_TREE_PLIES)
+                        break;
+                    node = select(node);
+                    visits[node]++;
+                    path[length++] = node;
+                    play(moves[node]);
+                    if (visits[node] == 1)
+                        break;
+                }
+                terminal = childCount[node] == 0;
+            }
+
+            Color winner = terminal ? opposite(position.getTurn()) : playout();
+            playouts.incrementAndGet();
+
+            synchronized (treeLock) {
+                Color mover = rootTurn;
+                for (int i = 0; i < length; i++) {
+                    int node = path[i];
+                    if (winner == null)
+                        wins[node] += 1;
+                    else if (winner == mover)
+                        wins[node] += 2;
+                    mover = opposite(mover);
+                }
+            }
+
+            while (plies > 0) {
+                plies--;
+                position.unmakeMove(played[plies], capturedKings[plies], hashes[plies]);
+            }
+        }
+
+        /**
+         * plays random moves, a jump whenever there is one, until someone can not move
+         * @return Color the winner, or null if the game ran too long
+         */
+        private Color playout() {
+            for (int i = 0; i < MAX_PLAYOUT_PLIES; i++) {
+                Color turn = position.getTurn();
+                int count = MoveGenerator.generateJumps(position, turn, buffer);
+                if (count == 0)
+                    count = MoveGenerator.generate(position, turn, buffer);
+                if (count == 0)
+                    return opposite(turn);
+                play(buffer[nextInt(count)]);
+            }
+            return null;
+        }
+
+        /**
+         * makes a move and remembers how to take it back
+         * @param move
+         */
+        private void play(int move) {
+            played[plies] = move;
+            hashes[plies] = position.getHash();
+            capturedKings[plies] = position.makeMove(move);
+            plies++;
+        }
+
+        /**
+         * xorshift random number below a bound
+         * @param bound
+         * @return int
+         */
+        private int nextInt(int bound) {
+            random ^= random << 13;
+            random ^= random >>> 7;
+            random ^= random << 17;
+            return (int) ((random >>> 33) % bound);
+        }
+    }
+
+    private static Color opposite(Color color) {
+        return (color == Color.DARK) ? Color.LIGHT : Color.DARK;
+    }
+}
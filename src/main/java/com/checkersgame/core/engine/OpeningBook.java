@@ -0,0 +1,118 @@
+package com.checkersgame.core.engine;
+
+/** Opening book read straight from a memory mapped file.  The file is a list of 16 byte records sorted by position
+ * hash, each holding the hash (8 bytes), a packed move (4 bytes) and how often the move was played (4 bytes), so
+ * a position is found with a binary search over the mapped pages and nothing is read onto the heap.  Every
+ * process that opens the same book shares the pages.
+ *
+ * Books are written by OpeningBookBuilder.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.BitBoard;
+import com.checkersgame.core.Move;
+import com.checkersgame.core.MoveGenerator;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+public class OpeningBook {
+
+    public static final int RECORD_BYTES = 16;
+
+    private final MappedByteBuffer records;
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer records, int size) {
+        this.records = records;
+        this.size = size;
+    }
+
+    /**
+     * maps a book file
+     * @param path
+     * @return OpeningBook
+     * @throws IOException if the file can not be read or is not a book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length % RECORD_BYTES != 0 || length / RECORD_BYTES > Integer.MAX_VALUE / RECORD_BYTES)
+                throw new IOException(path + " is not an opening book");
+            // the mapping stays valid after the channel is closed
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, length),
+                    (int) (length / RECORD_BYTES));
+        }
+    }
+
+    /**
+     * gets the number of records in the book
+     * @return int
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * picks a book move for the position, moves played more often being picked more often.  Moves that are not
+     * legal in the position are skipped, so a hash collision can not play an illegal move.
+     * @param position
+     * @param random
+     * @return int packed move, or Move.NONE if the position is not in the book
+     */
+    public int probe(BitBoard position, Random random) {
+        long hash = position.getHash();
+        int first = firstRecord(hash);
+        long total = 0;
+        for (int i = first; i < size && hashAt(i) == hash; i++)
+            if (MoveGenerator.isLegal(position, moveAt(i)))
+                total += weightAt(i);
+        if (total == 0)
+            return Move.NONE;
+
+        long pick = (long) (random.nextDouble() * total);
+        for (int i = first; ; i++) {
+            if (!MoveGenerator.isLegal(position, moveAt(i)))
+                continue;
+            pick -= weightAt(i);
+            if (pick < 0)
+                return moveAt(i);
+        }
+    }
+
+    /**
+     * binary search for the first record of a hash
+     * @param hash
+     * @return int the index, or where it would be if the hash is not in the book
+     */
+    private int firstRecord(long hash) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (hashAt(middle) < hash)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    private long hashAt(int index) {
+        return records.getLong(index * RECORD_BYTES);
+    }
+
+    private int moveAt(int index) {
+        return records.getInt(index * RECORD_BYTES + 8);
+    }
+
+    private int weightAt(int index) {
+        return records.getInt(index * RECORD_BYTES + 12);
+    }
+}
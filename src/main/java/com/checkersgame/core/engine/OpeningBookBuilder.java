@@ -0,0 +1,116 @@
+package com.checkersgame.core.engine;
+
+/** Collects the moves played in the opening of games and writes them as an OpeningBook file.  Games can be added
+ * as lists of moves or played by an engine against itself.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.BitBoard;
+import com.checkersgame.core.Move;
+import com.checkersgame.core.MoveGenerator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OpeningBookBuilder {
+
+    private final int maxPlies;
+    private final Map<Long, Map<Integer, Integer>> positions = new HashMap<>();
+
+    /**
+     * creates a builder that keeps the first moves of each game
+     * @param maxPlies how many moves of a game go in the book
+     */
+    public OpeningBookBuilder(int maxPlies) {
+        if (maxPlies < 1)
+            throw new IllegalArgumentException("a book needs at least one ply");
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * adds the opening of a game played from the starting position
+     * @param moves packed moves in the order they were played
+     * @throws IllegalArgumentException if a move is not legal where it was played
+     */
+    public void addGame(int[] moves) {
+        BitBoard position = BitBoard.startingPosition();
+        for (int ply = 0; ply < moves.length && ply < maxPlies; ply++) {
+            if (!MoveGenerator.isLegal(position, moves[ply]))
+                throw new IllegalArgumentException("move " + (ply + 1) + " is not legal: " + Move.toString(moves[ply]));
+            add(position.getHash(), moves[ply]);
+            position.makeMove(moves[ply]);
+        }
+    }
+
+    /**
+     * lets an engine play the openings of games against itself and adds them.  An engine that plays the same move
+     * every time adds the same game every time, so use one with some randomness such as MonteCarloSearch.
+     * @param engine
+     * @param games
+     */
+    public void addSelfPlay(SearchEngine engine, int games) {
+        for (int game = 0; game < games; game++) {
+            BitBoard position = BitBoard.startingPosition();
+            for (int ply = 0; ply < maxPlies; ply++) {
+                int move = engine.search(position);
+                if (move == Move.NONE)
+                    break;
+                add(position.getHash(), move);
+                position.makeMove(move);
+            }
+        }
+    }
+
+    /**
+     * gets the number of records the book will have
+     * @return int
+     */
+    public int size() {
+        int size = 0;
+        for (Map<Integer, Integer> moves : positions.values())
+            size += moves.size();
+        return size;
+    }
+
+    private void add(long hash, int move) {
+        positions.computeIfAbsent(hash, h -> new HashMap<>()).merge(move, 1, Integer::sum);
+    }
+
+    /**
+     * writes the records sorted by hash, then by move
+     * @param path
+     * @throws IOException
+     */
+    public void write(Path path) throws IOException {
+        List<Long> hashes = new ArrayList<>(positions.keySet());
+        hashes.sort(null);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size() * OpeningBook.RECORD_BYTES);
+        for (long hash : hashes) {
+            Map<Integer, Integer> moves = positions.get(hash);
+            List<Integer> sorted = new ArrayList<>(moves.keySet());
+            sorted.sort(null);
+            for (int move : sorted) {
+                buffer.putLong(hash);
+                buffer.putInt(move);
+                buffer.putInt(moves.get(move));
+            }
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package com.checkersgame.core.engine;
+
+/** Proof-number search, to decide a position exactly instead of scoring it.  The search grows a tree toward the
+ * node that is cheapest to settle, counting for every node how many leaves still have to be proved (proof number)
+ * or disproved (disproof number) for the color it is trying to win for.  The position is searched once to prove a
+ * win for the side to move and once to prove a win for the other side; if neither can be proved it is a draw.
+ *
+ * The tree is kept in int arrays of a fixed size, with the nodes in one set and the moves leading out of them in
+ * another.  A position without kings can not repeat and has no ply limit, so its result does not depend on the
+ * line that reached it: such positions are looked up by their hash and every move order that reaches one shares
+ * its node, which turns the tree into a graph.  The numbers of a shared node are then counted once for each line
+ * to it, so a node reached many ways looks harder to settle than it is, and the size of a proof counts a shared
+ * part once for each time it is used.  Positions with kings get a node of their own on every line.  As soon as a
+ * node is settled its moves are handed back to free lists and the nodes that no other line still uses go with
+ * them, so memory goes to the part of the graph that is still open.  Only kings can go back, so only they can
+ * draw: a position that repeats one earlier on the line being searched is a draw, and so is a line that still has
+ * kings after the ply limit.  The limit is kept short so that drawn king endings, where every line of the color
+ * trying to win has to be followed until it repeats or runs out, fit in the tree.  A win with kings that takes
+ * longer than the limit is reported as a draw, so raise it for endings with several kings.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.BitBoard;
+import com.checkersgame.core.MoveGenerator;
+import com.checkersgame.core.enums.Color;
+
+public class ProofNumberSearch {
+
+    public static final int UNKNOWN = 0;
+    public static final int LOSS = 1;
+    public static final int WIN = 2;
+    public static final int DRAW = 3;
+
+    private static final int INFINITY = 1 << 30;
+    private static final int NOT_EXPANDED = -1;
+    private static final int NONE = -1;
+    private static final int NOT_SHARED = -2;
+    // longest a line of men can go on, every man moving all the way up the board
+    private static final int MEN_PLIES = 24 * 7;
+
+    private final int[] proof;
+    private final int[] disproof;
+    private final int[] proofSize;
+    private final int[] firstEdge;
+    private final int[] edgeCount;
+    private final int[] refs;
+    private final int[] next;
+    private final long[] nodeHashes;
+    private final int[] edgeMoves;
+    private final int[] edgeNodes;
+    private final int[] buckets;
+    private final int[] freeLists = new int[MoveGenerator.MAX_MOVES + 1];
+    private int freeNode;
+    private int freeNodeCount;
+    private int nodeTop;
+    private int edgeTop;
+    private int live;
+
+    private long timeLimit = 0;
+    private int maxPlies = 20;
+
+    private BitBoard position;
+    private Color target;
+    private boolean rootOr;
+    private int[] path;
+    private int[] played;
+    private int[] capturedKings;
+    private long[] hashes;
+    private final int[] buffer = new int[MoveGenerator.MAX_MOVES];
+
+    private long nodes;
+    private int peakNodes;
+    private int resultProofSize;
+    private long elapsed;
+
+    /**
+     * creates a solver whose tree holds at most a number of nodes, and of moves between them, at once
+     * @param maxNodes
+     */
+    public ProofNumberSearch(int maxNodes) {
+        if (maxNodes < MoveGenerator.MAX_MOVES + 1)
+            throw new IllegalArgumentException("the tree must hold at least " + (MoveGenerator.MAX_MOVES + 1) +
+                    " nodes");
+        proof = new int[maxNodes];
+        disproof = new int[maxNodes];
+        proofSize = new int[maxNodes];
+        firstEdge = new int[maxNodes];
+        edgeCount = new int[maxNodes];
+        refs = new int[maxNodes];
+        next = new int[maxNodes];
+        nodeHashes = new long[maxNodes];
+        edgeMoves = new int[maxNodes];
+        edgeNodes = new int[maxNodes];
+        buckets = new int[Integer.highestOneBit(maxNodes)];
+        java.util.Arrays.fill(buckets, NONE);
+    }
+
+    /**
+     * sets how long a solve may take
+     * @param timeLimit milliseconds, or 0 for no limit
+     */
+    public void setTimeLimit(long timeLimit) {
+        if (timeLimit < 0)
+            throw new IllegalArgumentException("time limit can not be negative");
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * sets how long a line with kings may get before it counts as a draw
+     * @param maxPlies
+     */
+    public void setMaxPlies(int maxPlies) {
+        if (maxPlies < 1)
+            throw new IllegalArgumentException("ply limit must be positive");
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * gets the number of nodes in the proof of the last result, 0 if nothing was proved
+     * @return int
+     */
+    public int getProofSize() {
+        return resultProofSize;
+    }
+
+    /**
+     * gets the number of nodes the last solve created
+     * @return long
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * gets the most nodes the tree held at once during the last solve
+     * @return int
+     */
+    public int getPeakNodes() {
+        return peakNodes;
+    }
+
+    /**
+     * gets how many nodes the last solve created per second
+     * @return double
+     */
+    public double getNodesPerSecond() {
+        return nodes / Math.max(elapsed / 1e9, 1e-9);
+    }
+
+    /**
+     * decides a position for the color whose turn it is
+     * @param root the position, it is not changed
+     * @return int WIN, LOSS, DRAW, or UNKNOWN if the tree filled up or time ran out
+     */
+    public int solve(BitBoard root) {
+        long start = System.nanoTime();
+        long deadline = start + timeLimit * 1_000_000L;
+        nodes = 0;
+        peakNodes = 0;
+        resultProofSize = 0;
+        path = new int[maxPlies + MEN_PLIES + 1];
+        played = new int[maxPlies + MEN_PLIES];
+        capturedKings = new int[maxPlies + MEN_PLIES];
+        hashes = new long[maxPlies + MEN_PLIES + 1];
+
+        Color turn = root.getTurn();
+        int result = UNKNOWN;
+        int win = prove(root, turn, deadline);
+        if (win == WIN) {
+            result = WIN;
+        } else if (win == LOSS) {
+            int loss = prove(root, opposite(turn), deadline);
+            if (loss == WIN)
+                result = LOSS;
+            else if (loss == LOSS)
+                result = DRAW;
+        }
+        elapsed = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * runs one proof-number search for a color
+     * @param root
+     * @param color the color to prove a win for
+     * @param deadline
+     * @return int WIN if it was proved, LOSS if it was disproved, UNKNOWN if the search ran out
+     */
+    private int prove(BitBoard root, Color color, long deadline) {
+        position = root.copy();
+        target = color;
+        rootOr = root.getTurn() == color;
+        java.util.Arrays.fill(freeLists, NONE);
+        // the last search only filled the buckets of the nodes it used
+        for (int node = 0; node < nodeTop; node++)
+            buckets[bucket(nodeHashes[node])] = NONE;
+        freeNode = NONE;
+        freeNodeCount = 0;
+        nodeTop = 0;
+        edgeTop = 0;
+        live = 0;
+        int rootNode = newNode(0);
+
+        while (proof[rootNode] != 0 && disproof[rootNode] != 0) {
+            if (timeLimit > 0 && System.nanoTime() - deadline >= 0)
+                return UNKNOWN;
+
+            int depth = 0;
+            int node = rootNode;
+            while (edgeCount[node] > 0) {
+                path[depth] = node;
+                int edge = select(node, isOr(depth));
+                played[depth] = edgeMoves[edge];
+                hashes[depth] = position.getHash();
+                capturedKings[depth] = position.makeMove(edgeMoves[edge]);
+                node = edgeNodes[edge];
+                depth++;
+            }
+            path[depth] = node;
+
+            // a shared node settled on another line is reached through a parent that has not been updated since
+            boolean expanded = proof[node] == 0 || disproof[node] == 0 || expand(node, depth);
+            for (int d = depth; d >= 0; d--)
+                update(path[d], isOr(d));
+            for (int d = depth - 1; d >= 0; d--)
+                position.unmakeMove(played[d], capturedKings[d], hashes[d]);
+            if (!expanded)
+                return UNKNOWN;
+        }
+        if (proof[rootNode] == 0)
+            resultProofSize = proofSize[rootNode];
+        return (proof[rootNode] == 0) ? WIN : LOSS;
+    }
+
+    private boolean isOr(int depth) {
+        return rootOr == ((depth & 1) == 0);
+    }
+
+    /**
+     * sets up a node for the current position, settling it if the game is over, the position repeats or the line
+     * is too long with kings still on the board.  A draw is a disproof whichever color is being proved.
+     * @param node
+     * @param depth
+     */
+    private void initLeaf(int node, int depth) {
+        nodes++;
+        edgeCount[node] = NOT_EXPANDED;
+        proofSize[node] = 1;
+        Color turn = position.getTurn();
+        if ((depth >= maxPlies && position.getKings() != 0) || repeats(depth)) {
+            proof[node] = INFINITY;
+            disproof[node] = 0;
+        } else if (!position.hasMoves(turn)) {
+            boolean targetLost = turn == target;
+            proof[node] = targetLost ? INFINITY : 0;
+            disproof[node] = targetLost ? 0 : INFINITY;
+        } else {
+            proof[node] = 1;
+            disproof[node] = 1;
+        }
+    }
+
+    /**
+     * checks if the current position was already reached earlier on the line, with the same color to move
+     * @param depth
+     * @return boolean
+     */
+    private boolean repeats(int depth) {
+        long hash = position.getHash();
+        for (int d = depth - 2; d >= 0; d -= 2)
+            if (hashes[d] == hash)
+                return true;
+        return false;
+    }
+
+    /**
+     * picks the move on the way to the most proving node
+     * @param node
+     * @param or true if the color being proved is to move
+     * @return int the edge of the move
+     */
+    private int select(int node, boolean or) {
+        int best = firstEdge[node];
+        for (int edge = best + 1; edge < firstEdge[node] + edgeCount[node]; edge++) {
+            int child = edgeNodes[edge];
+            if (or ? proof[child] < proof[edgeNodes[best]] : disproof[child] < disproof[edgeNodes[best]])
+                best = edge;
+        }
+        return best;
+    }
+
+    /**
+     * adds the moves of the current position to a node, each leading to the node of the position it reaches
+     * @param node
+     * @param depth
+     * @return boolean false if the tree is full
+     */
+    private boolean expand(int node, int depth) {
+        int count = MoveGenerator.generate(position, position.getTurn(), buffer);
+        // every move may reach a position that has no node yet
+        if (freeNodeCount + proof.length - nodeTop < count)
+            return false;
+        int block = allocateEdges(count);
+        if (block < 0)
+            return false;
+
+        firstEdge[node] = block;
+        edgeCount[node] = count;
+        long hash = position.getHash();
+        hashes[depth] = hash;
+        for (int i = 0; i < count; i++) {
+            edgeMoves[block + i] = buffer[i];
+            int kings = position.makeMove(buffer[i]);
+            edgeNodes[block + i] = findOrCreate(depth + 1);
+            position.unmakeMove(buffer[i], kings, hash);
+        }
+        return true;
+    }
+
+    /**
+     * gets the node of the current position, sharing the node of a position without kings if it already has one
+     * @param depth
+     * @return int the node, with one more line leading to it
+     */
+    private int findOrCreate(int depth) {
+        long hash = position.getHash();
+        boolean shared = position.getKings() == 0;
+        int bucket = bucket(hash);
+        if (shared) {
+            for (int node = buckets[bucket]; node != NONE; node = next[node]) {
+                if (nodeHashes[node] == hash) {
+                    refs[node]++;
+                    return node;
+                }
+            }
+        }
+
+        int node = newNode(depth);
+        if (shared) {
+            next[node] = buckets[bucket];
+            buckets[bucket] = node;
+        }
+        return node;
+    }
+
+    /**
+     * takes a node for the current position, which must have room
+     * @param depth
+     * @return int
+     */
+    private int newNode(int depth) {
+        int node;
+        if (freeNode != NONE) {
+            node = freeNode;
+            freeNode = next[node];
+            freeNodeCount--;
+        } else {
+            node = nodeTop++;
+        }
+        live++;
+        peakNodes = Math.max(peakNodes, live);
+        refs[node] = 1;
+        next[node] = NOT_SHARED;
+        nodeHashes[node] = position.getHash();
+        initLeaf(node, depth);
+        return node;
+    }
+
+    /**
+     * works out the numbers of a node from the nodes its moves lead to.  A node that is settled keeps the size of
+     * its proof and gives its moves back.
+     * @param node
+     * @param or
+     */
+    private void update(int node, boolean or) {
+        if (edgeCount[node] <= 0)
+            return;
+        int first = firstEdge[node];
+        int end = first + edgeCount[node];
+        int pn = or ? INFINITY : 0;
+        int dn = or ? 0 : INFINITY;
+        for (int edge = first; edge < end; edge++) {
+            int child = edgeNodes[edge];
+            if (or) {
+                pn = Math.min(pn, proof[child]);
+                dn = (int) Math.min(INFINITY, (long) dn + disproof[child]);
+            } else {
+                pn = (int) Math.min(INFINITY, (long) pn + proof[child]);
+                dn = Math.min(dn, disproof[child]);
+            }
+        }
+        proof[node] = pn;
+        disproof[node] = dn;
+        if (pn != 0 && dn != 0)
+            return;
+
+        // one settled child is enough for a choice, every child is needed otherwise
+        boolean oneChild = (pn == 0) == or;
+        int size = oneChild ? Integer.MAX_VALUE : 1;
+        for (int edge = first; edge < end; edge++) {
+            int child = edgeNodes[edge];
+            if (!oneChild)
+                size = (int) Math.min(Integer.MAX_VALUE, (long) size + proofSize[child]);
+            else if ((pn == 0 ? proof[child] : disproof[child]) == 0)
+                size = Math.min(size, proofSize[child] + 1);
+        }
+        proofSize[node] = size;
+        release(node);
+    }
+
+    /**
+     * gives back the moves of a node, and every node below it that no other line leads to
+     * @param node
+     */
+    private void release(int node) {
+        int first = firstEdge[node];
+        int count = edgeCount[node];
+        for (int edge = first; edge < first + count; edge++) {
+            int child = edgeNodes[edge];
+            if (--refs[child] == 0)
+                free(child);
+        }
+        edgeNodes[first] = freeLists[count];
+        freeLists[count] = first;
+        edgeCount[node] = 0;
+    }
+
+    /**
+     * gives back a node that no line leads to any more, taking it out of the lookup if it was shared
+     * @param node
+     */
+    private void free(int node) {
+        if (edgeCount[node] > 0)
+            release(node);
+        if (next[node] != NOT_SHARED) {
+            int bucket = bucket(nodeHashes[node]);
+            if (buckets[bucket] == node) {
+                buckets[bucket] = next[node];
+            } else {
+                int previous = buckets[bucket];
+                while (next[previous] != node)
+                    previous = next[previous];
+                next[previous] = next[node];
+            }
+        }
+        next[node] = freeNode;
+        freeNode = node;
+        freeNodeCount++;
+        live--;
+    }
+
+    /**
+     * takes a block of moves from the free list of its size, or from the unused end of the arrays
+     * @param count
+     * @return int the first edge, or -1 if the tree is full
+     */
+    private int allocateEdges(int count) {
+        int block = freeLists[count];
+        if (block != NONE) {
+            freeLists[count] = edgeNodes[block];
+        } else {
+            if (edgeTop + count > edgeMoves.length)
+                return -1;
+            block = edgeTop;
+            edgeTop += count;
+        }
+        return block;
+    }
+
+    private int bucket(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & (buckets.length - 1);
+    }
+
+    private static Color opposite(Color color) {
+        return (color == Color.DARK) ? Color.LIGHT : Color.DARK;
+    }
+}
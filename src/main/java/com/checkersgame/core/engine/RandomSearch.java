@@ -0,0 +1,72 @@
+package com.checkersgame.core.engine;
+
+/** An engine that does not search, it plays one of the legal moves at random.  Used as the weakest opponent when
+ * measuring how strong the other engines are.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.BitBoard;
+import com.checkersgame.core.Move;
+import com.checkersgame.core.MoveGenerator;
+
+import java.util.Random;
+
+public class RandomSearch implements SearchEngine {
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private Random random = new Random();
+    private long timeLimit = 0;
+    private long nodes = 0;
+
+    /**
+     * sets the seed the moves are picked with
+     * @param seed
+     */
+    @Override
+    public void setSeed(long seed) {
+        random = new Random(seed);
+    }
+
+    @Override
+    public int search(BitBoard root) {
+        int count = MoveGenerator.generate(root, root.getTurn(), moves);
+        nodes = count;
+        if (count == 0)
+            return Move.NONE;
+        return moves[random.nextInt(count)];
+    }
+
+    /**
+     * gets the number of moves the last search picked from
+     * @return long
+     */
+    @Override
+    public long getNodes() {
+        return nodes;
+    }
+
+    @Override
+    public void setTimeLimit(long timeLimit) {
+        if (timeLimit < 0)
+            throw new IllegalArgumentException("time limit can not be negative");
+        this.timeLimit = timeLimit;
+    }
+
+    @Override
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    @Override
+    public void setThreads(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("thread count must be positive");
+    }
+
+    @Override
+    public int getThreads() {
+        return 1;
+    }
+}
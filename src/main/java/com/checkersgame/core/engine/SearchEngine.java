@@ -0,0 +1,61 @@
+package com.checkersgame.core.engine;
+
+/** A way for the computer to pick a move in a position.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.BitBoard;
+
+public interface SearchEngine {
+
+    /**
+     * searches a position and returns the best move for the color whose turn it is
+     * @param root the position, it is not changed
+     * @return int packed move, or Move.NONE if there are no moves
+     */
+    int search(BitBoard root);
+
+    /**
+     * gets the number of positions the last search looked at
+     * @return long
+     */
+    long getNodes();
+
+    /**
+     * sets how long a search may take
+     * @param timeLimit milliseconds, or 0 for no limit
+     */
+    void setTimeLimit(long timeLimit);
+
+    /**
+     * gets how long a search may take
+     * @return long milliseconds, 0 for no limit
+     */
+    long getTimeLimit();
+
+    /**
+     * sets how many threads search at once
+     * @param threads
+     */
+    void setThreads(int threads);
+
+    /**
+     * gets how many threads search at once
+     * @return int
+     */
+    int getThreads();
+
+    /**
+     * sets the seed of the random choices the engine makes, so the same searches can be played again
+     * @param seed
+     */
+    void setSeed(long seed);
+
+    /**
+     * stops the threads the engine keeps for its searches.  Call it when the engine is no longer used.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,210 @@
+package com.checkersgame.core.engine;
+
+/** Builds the EndgameTablebase files, slice by slice from the fewest men up.
+ *
+ * Without kings a man only moves forward, so no position can come back and every line ends.  The value of a
+ * position is found from the values of the positions after its moves: a plain move stays in the slice and is
+ * solved first (depth first, remembering every value), while a jump lands in a slice with fewer men that is
+ * already on disk.  A position is a win if some move leaves the opponent lost and a loss otherwise, so one pass
+ * over the slice settles it and no position is ever a draw.
+ *
+ * The positions of a slice are split into chunks that are solved on several threads.  Two threads may solve the
+ * same position, which only costs time because they always agree.  Each slice is written to a temporary file and
+ * renamed when done, so a run that is stopped can start again and skip the slices it already finished.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.BitBoard;
+import com.checkersgame.core.Move;
+import com.checkersgame.core.MoveGenerator;
+import com.checkersgame.core.enums.Color;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TablebaseGenerator {
+
+    /**
+     * most pieces the tables can be built for, with more some slices have more positions than an array holds
+     */
+    public static final int MAX_PIECES = 8;
+
+    private static final int CHUNKS_PER_THREAD = 16;
+
+    /**
+     * longest run of plain moves in a slice, every man walking from one end of the board to the other
+     */
+    private static final int MAX_LINE = 7 * 2 * EndgameTablebase.MAX_MEN + 1;
+
+    private final Path directory;
+    private final int threads;
+
+    /**
+     * creates a generator that writes into a directory
+     * @param directory
+     * @param threads
+     */
+    public TablebaseGenerator(Path directory, int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("thread count must be positive");
+        this.directory = directory;
+        this.threads = threads;
+    }
+
+    /**
+     * builds every slice with up to a number of men, skipping the ones already on disk
+     * @param maxPieces
+     * @throws IOException
+     */
+    public void generate(int maxPieces) throws IOException {
+        if (maxPieces < 1 || maxPieces > MAX_PIECES)
+            throw new IllegalArgumentException("piece count must be between 1 and " + MAX_PIECES);
+        Files.createDirectories(directory);
+        for (int total = 1; total <= maxPieces; total++) {
+            for (int dark = 0; dark <= total; dark++) {
+                int light = total - dark;
+                if (dark <= EndgameTablebase.MAX_MEN && light <= EndgameTablebase.MAX_MEN)
+                    generateSlice(dark, light);
+            }
+        }
+    }
+
+    /**
+     * builds one slice unless its file is already complete
+     * @param dark
+     * @param light
+     * @throws IOException
+     */
+    private void generateSlice(int dark, int light) throws IOException {
+        Path file = directory.resolve(EndgameTablebase.fileName(dark, light));
+        if (Files.isRegularFile(file) && Files.size(file) == EndgameTablebase.fileBytes(dark, light)) {
+            System.out.println("Slice " + dark + "-" + light + " already built");
+            return;
+        }
+        long positions = EndgameTablebase.positions(dark, light);
+        if (EndgameTablebase.fileBytes(dark, light) > Integer.MAX_VALUE || positions > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("slice " + dark + "-" + light + " is too big");
+
+        long start = System.nanoTime();
+        EndgameTablebase smaller = EndgameTablebase.open(directory);
+        byte[] values = new byte[(int) positions];
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            int chunks = threads * CHUNKS_PER_THREAD;
+            List<Future<?>> running = new ArrayList<>();
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                long from = positions * chunk / chunks;
+                long to = positions * (chunk + 1) / chunks;
+                running.add(pool.submit(() -> new Solver(values, smaller, dark, light).solveRange(from, to)));
+            }
+            for (Future<?> future : running)
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while building slice " + dark + "-" + light, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("could not build slice " + dark + "-" + light, e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        write(file, values);
+        System.out.printf("Slice %d-%d: %,d positions in %.1f s%n", dark, light, positions,
+                (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * packs the values four to a byte and writes them, renaming the file into place when it is complete
+     * @param file
+     * @param values
+     * @throws IOException
+     */
+    private static void write(Path file, byte[] values) throws IOException {
+        ByteBuffer packed = ByteBuffer.allocate((values.length + 3) / 4);
+        for (int i = 0; i < values.length; i++)
+            packed.put(i >>> 2, (byte) (packed.get(i >>> 2) | values[i] << ((i & 3) << 1)));
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (packed.hasRemaining())
+                channel.write(packed);
+            channel.force(true);
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * solves positions of one slice on one thread, with its own move buffers
+     */
+    private static class Solver {
+        private final byte[] values;
+        private final EndgameTablebase smaller;
+        private final int dark;
+        private final int light;
+        private final int[][] moveStack = new int[MAX_LINE][MoveGenerator.MAX_MOVES];
+
+        Solver(byte[] values, EndgameTablebase smaller, int dark, int light) {
+            this.values = values;
+            this.smaller = smaller;
+            this.dark = dark;
+            this.light = light;
+        }
+
+        void solveRange(long from, long to) {
+            for (long index = from; index < to; index++)
+                if (values[(int) index] == EndgameTablebase.UNKNOWN)
+                    solve(EndgameTablebase.position(index, dark, light), 0);
+        }
+
+        /**
+         * finds the value of a position of the slice for the side to move
+         * @param position
+         * @param depth plain moves played since the position solveRange started from
+         * @return int WIN or LOSS
+         */
+        private int solve(BitBoard position, int depth) {
+            int index = (int) EndgameTablebase.index(position.getPieces(Color.DARK), position.getPieces(Color.LIGHT),
+                    position.getTurn());
+            int value = values[index];
+            if (value != EndgameTablebase.UNKNOWN)
+                return value;
+
+            int[] moves = moveStack[depth];
+            int count = MoveGenerator.generate(position, position.getTurn(), moves);
+            long hash = position.getHash();
+            value = EndgameTablebase.LOSS;
+            for (int i = 0; i < count && value == EndgameTablebase.LOSS; i++) {
+                int move = moves[i];
+                int capturedKings = position.makeMove(move);
+                int reply = Move.isJump(move) ? smaller.probe(position) : solve(position, depth + 1);
+                position.unmakeMove(move, capturedKings, hash);
+                if (reply == EndgameTablebase.UNKNOWN)
+                    throw new IllegalStateException("a smaller slice is missing");
+                if (reply == EndgameTablebase.LOSS)
+                    value = EndgameTablebase.WIN;
+            }
+            values[index] = (byte) value;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.checkersgame.core.engine;
+
+/** Fixed size hash table of positions the search has already scored, shared by every search thread without locks.
+ *
+ * Each entry is two longs in one preallocated array: the position hash xor'ed with the data, then the data.  The
+ * data packs the best move (bits 0 - 31), the score (bits 32 - 52), the depth (bits 53 - 59) and the bound type
+ * (bits 60 - 61) so no objects are created per entry.  Two threads writing the same slot at once can leave the
+ * halves of different entries together; the key check then fails and the slot reads as empty, so a torn entry is
+ * never used.
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+import com.checkersgame.core.Move;
+
+public class TranspositionTable {
+
+    /**
+     * the score is at most the real score
+     */
+    public static final int UPPER = 1;
+
+    /**
+     * the score is at least the real score
+     */
+    public static final int LOWER = 2;
+
+    /**
+     * the score is the real score
+     */
+    public static final int EXACT = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int SCORE_SHIFT = 32;
+    private static final int SCORE_BITS = 21;
+    private static final int DEPTH_SHIFT = 53;
+    private static final int DEPTH_MASK = 0x7F;
+    private static final int BOUND_SHIFT = 60;
+
+    private final long[] table;
+    private final int mask;
+
+    /**
+     * creates a table that uses about as much memory as asked for, rounded down to a power of two entries
+     * @param megabytes
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1 || megabytes > 8192)
+            throw new IllegalArgumentException("table size must be between 1 and 8192 MB");
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        entries = Math.min(entries, 1 << 30);
+        table = new long[(int) entries * 2];
+        mask = (int) entries - 1;
+    }
+
+    /**
+     * gets the number of entries the table holds
+     * @return int
+     */
+    public int size() {
+        return mask + 1;
+    }
+
+    /**
+     * empties the table
+     */
+    public void clear() {
+        java.util.Arrays.fill(table, 0L);
+    }
+
+    /**
+     * looks a position up
+     * @param hash
+     * @return long the packed entry, or 0 if the position is not in the table
+     */
+    public long probe(long hash) {
+        int index = ((int) hash & mask) << 1;
+        long data = table[index + 1];
+        return (table[index] ^ data) == hash ? data : 0L;
+    }
+
+    /**
+     * stores the result of searching a position.  An entry for the same position searched deeper is kept unless
+     * the new score is exact.
+     * @param hash
+     * @param depth
+     * @param bound UPPER, LOWER or EXACT
+     * @param score
+     * @param move best move found, or Move.NONE
+     */
+    public void store(long hash, int depth, int bound, int score, int move) {
+        int index = ((int) hash & mask) << 1;
+        long old = table[index + 1];
+        if ((table[index] ^ old) == hash) {
+            if (bound != EXACT && getDepth(old) > depth)
+                return;
+            if (move == Move.NONE)
+                move = getMove(old);
+        }
+        long data = (move & 0xFFFFFFFFL) |
+                ((long) score & ((1L << SCORE_BITS) - 1)) << SCORE_SHIFT |
+                (long) depth << DEPTH_SHIFT |
+                (long) bound << BOUND_SHIFT;
+        table[index] = hash ^ data;
+        table[index + 1] = data;
+    }
+
+    /**
+     * gets the best move of an entry
+     * @param entry
+     * @return int packed move, or Move.NONE
+     */
+    public static int getMove(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * gets the score of an entry
+     * @param entry
+     * @return int
+     */
+    public static int getScore(long entry) {
+        return (int) (entry << (64 - SCORE_SHIFT - SCORE_BITS) >> (64 - SCORE_BITS));
+    }
+
+    /**
+     * gets the depth an entry was searched to
+     * @param entry
+     * @return int
+     */
+    public static int getDepth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & DEPTH_MASK;
+    }
+
+    /**
+     * gets the bound type of an entry
+     * @param entry
+     * @return int UPPER, LOWER or EXACT
+     */
+    public static int getBound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 3;
+    }
+}
@@ -6,9 +6,6 @@ package com.checkersgame.core.enums;
  * @version : 1.0
  **/
 
-import java.util.HashMap;
-import java.util.Map;
-
 public enum ColumnLabel {
     A(0),
     B(1),
@@ -20,7 +17,7 @@ public enum ColumnLabel {
     H(7);
 
     private int value;
-    private static Map map = new HashMap<>();
+    private static final ColumnLabel[] labels = new ColumnLabel[8];
 
     ColumnLabel(int value) {
         this.value = value;
@@ -28,12 +25,11 @@ public enum ColumnLabel {
 
     static {
         for (ColumnLabel label : ColumnLabel.values())
-            map.put(label.value, label);
+            labels[label.value] = label;
     }
 
     public static ColumnLabel valueOf(int columnLabel) {
-
-        return (ColumnLabel) map.get(columnLabel);
+        return (columnLabel >= 0 && columnLabel < labels.length) ? labels[columnLabel] : null;
     }
 
     public Integer getValue() {
@@ -0,0 +1,13 @@
+package com.checkersgame.core.enums;
+
+/** EngineType enum for the ways the computer can pick its moves
+ *
+ * @author : Matthew Gutierrez
+ * @version : 1.0
+ **/
+
+public enum EngineType {
+    ALPHA_BETA,
+    MONTE_CARLO,
+    RANDOM
+}
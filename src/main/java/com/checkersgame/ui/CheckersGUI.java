@@ -8,7 +8,8 @@ package com.checkersgame.ui;
  * @version 1.0
  */
 
-import com.checkersgame.core.Coordinate;
+import com.checkersgame.core.BitBoard;
+import com.checkersgame.core.PositionSnapshot;
 import com.checkersgame.core.Square;
 import com.checkersgame.core.enums.Color;
 import com.checkersgame.core.enums.ColumnLabel;
@@ -45,8 +46,9 @@ public class CheckersGUI extends Application {
     protected GridPane boardUI = new GridPane();
 
     protected final String instructionText = "Choose a cell position of piece to be moved and the " +
-            "new position. e.g., 3a-4b";
+            "new position. e.g., 3a-4b, or every landing square of a chain of jumps e.g., 3a-5c-7e";
     private SquarePane[] squarePanes = new SquarePane[64];
+    private PositionSnapshot drawnPosition;
 
     /**
      * launches the gui when called
@@ -138,19 +140,7 @@ public class CheckersGUI extends Application {
         }
 
         try{
-            String[] split = input.getCharacters().toString().split("-");
-            if (split.length < 2) {
-                throw new Exception();
-            }
-
-            Coordinate rowCord = InputHelper.convertStringToCoordinate(split[0]);
-            Coordinate colCord = InputHelper.convertStringToCoordinate(split[1]);
-            if (split.length > 2) {
-                Coordinate lastCord = InputHelper.convertStringToCoordinate(split[2]);
-                logic.handleTurn(opponent, rowCord, colCord, lastCord);
-            } else {
-                logic.handleTurn(opponent, rowCord, colCord);
-            }
+            logic.handleTurn(opponent, InputHelper.convertStringToMove(input.getCharacters().toString()));
         } catch (Exception ex) {
             inputTitle.setText("Invalid input. Example move is 3C-4D");
         }
@@ -199,24 +189,24 @@ public class CheckersGUI extends Application {
     }
 
     /**
-     * updates the pieces on the board in the squares
+     * updates the pieces in the squares that changed since the last update.  Reads the published snapshot of the
+     * position, so it does not race with a move being made on another thread.
      */
     protected void updateBoard() {
-        Square[][] b = logic.getBoard();
-        int id = 0;
-
-        for (int i = 0; i < b.length; i++) {
-            for (ColumnLabel col : ColumnLabel.values()) {
-                Square s = b[i][col.getValue()];
-                if (s.isOccupied()) {
-                    squarePanes[id].getChildren().clear();
-                    squarePanes[id].getChildren().add(new Piece(s.getCurrentPiece().getColor()));
-                } else {
-                    squarePanes[id].getChildren().clear();
-                }
-
-                id++;
-            }
+        PositionSnapshot position = logic.getSnapshot();
+        int changed = (drawnPosition == null) ? -1 : position.changedSquares(drawnPosition);
+        drawnPosition = position;
+
+        while (changed != 0) {
+            int index = Integer.numberOfTrailingZeros(changed);
+            changed &= changed - 1;
+
+            int i = 8 - BitBoard.rowOf(index);
+            SquarePane squarePane = squarePanes[i * 8 + BitBoard.columnOf(index)];
+            squarePane.getChildren().clear();
+            Color pieceColor = position.getColorAt(index);
+            if (pieceColor != null)
+                squarePane.getChildren().add(new Piece(pieceColor));
         }
     }
 
@@ -67,21 +67,9 @@ public class CheckersTextConsole {
         while (!logic.declaredWinner()) {
             s = scan.nextLine();
             System.out.println(s);
-            String[] split = s.split("-");
 
             try{
-                if (split.length < 2) {
-                    throw new IllegalArgumentException();
-                }
-
-                Coordinate rowCord = InputHelper.convertStringToCoordinate(split[0]);
-                Coordinate colCord = InputHelper.convertStringToCoordinate(split[1]);
-                if (split.length > 2) {
-                    Coordinate lastCord = InputHelper.convertStringToCoordinate(split[2]);
-                    logic.handleTurn(opponent, rowCord, colCord, lastCord);
-                } else {
-                    logic.handleTurn(opponent, rowCord, colCord);
-                }
+                logic.handleTurn(opponent, InputHelper.convertStringToMove(s));
             } catch (Exception e) {
                 System.out.println("Invalid input. Example move is 3C-4D");
                 continue;
@@ -99,16 +87,18 @@ public class CheckersTextConsole {
     }
 
     /**
-     * displays the baard in the console, but gets the matrix from the core package
+     * displays the baard in the console, reading the position snapshot from the core package
      */
     private void displayBoard() {
-        Square[][] board = logic.getBoard();
-        for (int i = 0; i < board.length; i++) {
-            System.out.print(8 - i + WALL);
+        PositionSnapshot position = logic.getSnapshot();
+        for (int row = 8; row > 0; row--) {
+            System.out.print(row + WALL);
             for (ColumnLabel col : ColumnLabel.values()) {
-                if (!board[i][col.getValue()].isOccupied())
+                int square = BitBoard.squareIndex(row, col);
+                Color pieceColor = (square < 0) ? null : position.getColorAt(square);
+                if (pieceColor == null)
                     System.out.print(SPACE);
-                else if (board[i][col.getValue()].getCurrentPiece().getColor() == Color.DARK)
+                else if (pieceColor == Color.DARK)
                     System.out.print(x_TOKEN);
                 else
                     System.out.print(o_TOKEN);
@@ -1,6 +1,7 @@
 package com.checkersgame.ui;
 
 import com.checkersgame.core.Coordinate;
+import com.checkersgame.core.Move;
 import com.checkersgame.core.enums.ColumnLabel;
 
 /**
@@ -23,6 +24,27 @@ public class InputHelper {
         return new Coordinate(col, row);
     }
 
+    /**
+     * takes in a move like 3c-4d, or 3c-5e-7c for a chain of jumps, and converts it to a packed move
+     * @param s
+     * @return int packed move
+     * @throws Exception
+     */
+    public static int convertStringToMove(String s) throws Exception {
+        String[] split = s.split("-");
+        if (split.length < 2)
+            throw new IllegalArgumentException();
+
+        Coordinate[] path = new Coordinate[split.length];
+        for (int i = 0; i < split.length; i++)
+            path[i] = convertStringToCoordinate(split[i]);
+
+        int move = Move.fromPath(path);
+        if (move == Move.NONE)
+            throw new IllegalArgumentException();
+        return move;
+    }
+
     /**
      * reads the first char of a string to get the row
      * @param s